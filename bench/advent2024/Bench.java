@@ -0,0 +1,134 @@
+package advent2024;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * A minimal benchmark harness in the style of JMH.
+ *
+ * <p>Each benchmark is run for a number of time-bounded warmup iterations followed by a number of time-bounded
+ * measurement iterations.
+ * Every iteration invokes the operation in a loop until the iteration time has elapsed (at least once).
+ * The result of every invocation is consumed so the JIT cannot eliminate the operation.
+ *
+ * <p>The measurement reports:
+ * <ul>
+ *     <li>throughput (ops/s) and average time (us/op)
+ *     <li>allocation rate (MB/s) and normalized allocation (B/op), equivalent to JMH's {@code -prof gc}, summed over
+ *         all live threads so that work done in a fork/join pool counts
+ *     <li>the number of GC cycles during the measurement iterations
+ * </ul>
+ *
+ * <p>Solvers that print (e.g., Day14 and Day15) have {@code System.out} discarded while they are being measured.
+ */
+final class Bench {
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private static volatile int sink;
+
+    private Bench() {
+    }
+
+    static Result run(String name, int scale, Supplier<?> op, Options options) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var out = System.out;
+        System.setOut(DISCARD);
+        try {
+            for (var i = 0; i < options.warmupIterations; i++) {
+                iteration(op, options.iterationMillis);
+            }
+
+            var ops = 0L;
+            var nanos = 0L;
+            var gcCount = gcCount();
+            var threadIds = threads.getAllThreadIds();
+            var threadBytes = threads.getThreadAllocatedBytes(threadIds);
+            for (var i = 0; i < options.iterations; i++) {
+                var start = System.nanoTime();
+                ops += iteration(op, options.iterationMillis);
+                nanos += System.nanoTime() - start;
+            }
+            var allocated = allocatedSince(threads, threadIds, threadBytes);
+            gcCount = gcCount() - gcCount;
+
+            var seconds = nanos / 1e9;
+            return new Result(name, scale, ops,
+                    ops / seconds,
+                    nanos / 1e3 / ops,
+                    allocated / seconds / (1024 * 1024),
+                    (double) allocated / ops,
+                    gcCount);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static long iteration(Supplier<?> op, long iterationMillis) {
+        var deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        var ops = 0L;
+        do {
+            consume(op.get());
+            ops++;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    private static void consume(Object result) {
+        // a cheap, non-eliminable use of the result
+        sink ^= System.identityHashCode(result);
+    }
+
+    /**
+     * Returns the bytes allocated by all live threads since their counts were taken, counting threads started since
+     * from zero.
+     * Threads that have ended since are not counted.
+     */
+    private static long allocatedSince(com.sun.management.ThreadMXBean threads, long[] threadIds, long[] threadBytes) {
+        var ids = threads.getAllThreadIds();
+        var bytes = threads.getThreadAllocatedBytes(ids);
+        var allocated = 0L;
+        for (var i = 0; i < ids.length; i++) {
+            if (bytes[i] < 0) {
+                continue;
+            }
+            var before = 0L;
+            for (var j = 0; j < threadIds.length; j++) {
+                if (threadIds[j] == ids[i]) {
+                    before = Math.max(0, threadBytes[j]);
+                    break;
+                }
+            }
+            allocated += bytes[i] - before;
+        }
+        return allocated;
+    }
+
+    private static long gcCount() {
+        var count = 0L;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    static String header() {
+        return String.format("%-28s %6s %10s %14s %14s %12s %14s %6s",
+                "Benchmark", "Scale", "Ops", "Thrpt (ops/s)", "Avgt (us/op)", "Alloc (MB/s)", "Alloc (B/op)", "GCs");
+    }
+
+    record Options(int warmupIterations, int iterations, long iterationMillis) {}
+
+    record Result(String name, int scale, long ops, double opsPerSecond, double microsPerOp,
+                  double allocMegabytesPerSecond, double allocBytesPerOp, long gcCount) {
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %5dx %10d %14.3f %14.3f %12.1f %14.0f %6d",
+                    name, scale, ops, opsPerSecond, microsPerOp, allocMegabytesPerSecond, allocBytesPerOp, gcCount);
+        }
+    }
+}
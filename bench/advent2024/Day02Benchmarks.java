@@ -0,0 +1,76 @@
+package advent2024;
+
+import java.util.Random;
+
+/**
+ * Benchmarks Day02 part 1 with the scalar and the vectorized validator on reports of 8, 64, and 4096 levels.
+ *
+ * <p>Usage, from the repository root:
+ * <pre>
+ * javac --add-modules jdk.incubator.vector -d out \
+ *     src/advent2024/*.java bench/advent2024/*.java incubator/advent2024/*.java
+ * java --add-modules jdk.incubator.vector -cp out advent2024.Day02Benchmarks \
+ *     [-wi warmups] [-i iterations] [-t millis]
+ * </pre>
+ * Without the Vector API only the scalar validator is benchmarked.
+ *
+ * <p>Each input has about a million levels, in reports that are all valid so that every level is checked.
+ * The scale column is the number of levels in each report.
+ */
+public final class Day02Benchmarks {
+
+    private static final int[] LENGTHS = { 8, 64, 4096 };
+    private static final int LEVELS = 1 << 20;
+
+    private Day02Benchmarks() {
+    }
+
+    public static void main(String[] args) {
+        var warmups = 3;
+        var iterations = 5;
+        var millis = 1000L;
+        for (var i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi" -> warmups = Integer.parseInt(args[++i]);
+                case "-i" -> iterations = Integer.parseInt(args[++i]);
+                case "-t" -> millis = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+
+        var options = new Bench.Options(warmups, iterations, millis);
+        Day02.Validator scalar = Day02::checkValid;
+        var vectorized = Day02.VALIDATOR.getClass().getSimpleName().equals("Day02Vector");
+        if (!vectorized) {
+            System.out.println("Day02Vector is not available, run with --add-modules jdk.incubator.vector");
+        }
+        System.out.println(Bench.header());
+        for (var length : LENGTHS) {
+            var reports = reports(length, new Random(2024));
+            System.out.println(Bench.run("Day02.scalar", length, () -> Day02.doPart1(reports, scalar), options));
+            if (vectorized) {
+                System.out.println(Bench.run("Day02.vector", length,
+                        () -> Day02.doPart1(reports, Day02.VALIDATOR), options));
+            }
+        }
+    }
+
+    /**
+     * Generates valid reports, half increasing and half decreasing, of a length.
+     */
+    private static Day02.Reports reports(int length, Random random) {
+        var count = LEVELS / length;
+        var levels = new int[count * length];
+        var offsets = new int[count + 1];
+        for (var r = 0; r < count; r++) {
+            var direction = random.nextBoolean() ? 1 : -1;
+            var from = r * length;
+            levels[from] = random.nextInt(100);
+            for (var i = from + 1; i < from + length; i++) {
+                levels[i] = levels[i - 1] + direction * (1 + random.nextInt(3));
+            }
+            offsets[r + 1] = from + length;
+        }
+        return new Day02.Reports(levels, offsets);
+    }
+}
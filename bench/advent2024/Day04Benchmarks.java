@@ -0,0 +1,79 @@
+package advent2024;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks Day04 searches of random grids of 'X', 'M', 'A', and 'S', up to 20,000 by 20,000 cells.
+ *
+ * <p>Usage, from the repository root:
+ * <pre>
+ * javac -d out src/advent2024/*.java bench/advent2024/*.java
+ * java -Xmx3g -cp out advent2024.Day04Benchmarks [-wi warmups] [-i iterations] [-t millis]
+ * </pre>
+ *
+ * <p>The line searches compare the {@link WordSearch} automaton with the eight line masks of a {@link BitBoard}, and
+ * the cross search compares {@link Day04#doPart2}, the linear search of each 'A', with the four turns of the cross as
+ * masks of a {@link BitBoard}, packing the board as part of the search.
+ * The {@code parallel} benchmarks search a band of rows on each thread of a pool with a thread for each processor, or
+ * {@code -Dadvent2024.parallelism=N} threads.
+ * The scale column is the number of rows and columns of the grid.
+ */
+public final class Day04Benchmarks {
+
+    private static final int[] SIDES = { 2_000, 20_000 };
+
+    private Day04Benchmarks() {
+    }
+
+    public static void main(String[] args) {
+        var warmups = 1;
+        var iterations = 3;
+        var millis = 1000L;
+        for (var i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi" -> warmups = Integer.parseInt(args[++i]);
+                case "-i" -> iterations = Integer.parseInt(args[++i]);
+                case "-t" -> millis = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+
+        var options = new Bench.Options(warmups, iterations, millis);
+        var pool = new ForkJoinPool(
+                Integer.getInteger("advent2024.parallelism", Runtime.getRuntime().availableProcessors()));
+        var xmas = WordSearch.of("XMAS");
+        var lines = BitBoard.Mask.lines("XMAS");
+        var cross = BitBoard.Mask.of(
+                "M.S",
+                ".A.",
+                "M.S");
+        var crosses = new BitBoard.Mask[] { cross, cross.rotate(), cross.rotate().rotate(),
+                cross.rotate().rotate().rotate() };
+        System.out.println(Bench.header());
+        for (var side : SIDES) {
+            var grid = grid(side, new Random(2024));
+            var board = BitBoard.of(grid);
+            System.out.println(Bench.run("BitBoard.of", side, () -> BitBoard.of(grid), options));
+            System.out.println(Bench.run("WordSearch.count", side, () -> xmas.count(grid), options));
+            System.out.println(Bench.run("BitBoard.lines", side, () -> board.count(lines), options));
+            System.out.println(Bench.run("Day04.doPart2", side, () -> Day04.doPart2(grid), options));
+            System.out.println(Bench.run("BitBoard.crosses", side, () -> BitBoard.of(grid).count(crosses), options));
+            System.out.println(Bench.run("Day04.parallel.doPart1", side, () -> Day04.doPart1(grid, pool), options));
+            System.out.println(Bench.run("Day04.parallel.doPart2", side, () -> Day04.doPart2(grid, pool), options));
+        }
+    }
+
+    /**
+     * Generates a square grid of random letters.
+     */
+    private static Grid grid(int side, Random random) {
+        var grid = new Grid(side, side, (byte) 'X');
+        for (var row = 0; row < side; row++) {
+            for (var col = 0; col < side; col++) {
+                grid.set(grid.index(row, col), (byte) "XMAS".charAt(random.nextInt(4)));
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,266 @@
+package advent2024;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks the parse phase and every solve entry point ({@code doPart1}, {@code doPart2}, {@code execute},
+ * {@code calculate}, ...) of each day, separately, at 1x, 10x and 100x the size of the puzzle input.
+ *
+ * <p>Usage, from the repository root:
+ * <pre>
+ * javac -d out src/advent2024/*.java bench/advent2024/*.java
+ * java -cp out advent2024.DayBenchmarks [regex] [-wi warmups] [-i iterations] [-t millis] [-s scales] [-g [seed]]
+ * </pre>
+ * e.g., {@code java -cp out advent2024.DayBenchmarks "Day0[12]" -s 1,10}.
+ * Defaults are 3 warmup iterations and 5 measurement iterations of 1000 ms at scales 1, 10, and 100.
+ *
+ * <p>Inputs are scaled by replicating the records of the puzzle input (lines, machines, robots, moves, towel
+ * patterns, etc.).
+ * Grids are tiled horizontally.
+ * Days with a fixed-size puzzle are only benchmarked at 1x: Day06 (a tiled guard path can loop forever in part 1),
+ * Day16 and Day20 (single start/end mazes), Day17 (a program), and Day18 (a fixed 71x71 grid).
+ *
+ * <p>With {@code -g} the inputs are instead generated by {@link InputGenerator}, from the seed (default 2024), at
+ * each scale, and memory mapped.
+ * Generated Day06, Day16, and Day20 inputs are valid at any size, so only Day17 and Day18 are fixed at 1x.
+ *
+ * <p>The answers of the selected days are checked against the golden answers ({@link GoldenAnswers}) before and
+ * after benchmarking, and the run fails on a mismatch.
+ *
+ * <p>The parse benchmarks start from the bytes of the input.
+ * Days that parse a {@link ByteCursor} directly allocate only their parsed input; the others include decoding the
+ * bytes into a string.
+ *
+ * <p>{@code Day01.parallel}, {@code Day03.parallel}, and {@code Day04.parallel} benchmark the parallel modes of those
+ * days, in a pool with a thread for each processor, or {@code -Dadvent2024.parallelism=N} threads.
+ * {@code Day03.scan} is the sequential scan of the bytes that the parallel mode runs on each chunk.
+ *
+ * <p>Entry points that mutate their input (Day01 part 1 sorts the lists in place, Day17 updates the registers) are
+ * benchmarked on a copy of the parsed input so that every invocation does the same work.
+ * The copy is included in the measured time.
+ */
+public class DayBenchmarks {
+
+    private static final int[] FIXED = { 1 };
+
+    /**
+     * The pool of the parallel benchmarks, with a thread for each processor unless set by
+     * {@code -Dadvent2024.parallelism=N}.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            Integer.getInteger("advent2024.parallelism", Runtime.getRuntime().availableProcessors()));
+
+    private final List<Benchmark<?>> benchmarks = new ArrayList<>();
+    private final int[] scales;
+    private final Long seed;
+
+    public static void main(String[] args) throws IOException {
+        var filter = Pattern.compile(".*");
+        var warmups = 3;
+        var iterations = 5;
+        var millis = 1000L;
+        var scales = new int[] { 1, 10, 100 };
+        Long seed = null;
+        for (var i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi" -> warmups = Integer.parseInt(args[++i]);
+                case "-i" -> iterations = Integer.parseInt(args[++i]);
+                case "-t" -> millis = Long.parseLong(args[++i]);
+                case "-s" -> scales = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "-g" -> seed = i + 1 < args.length && args[i + 1].matches("\\d+")
+                        ? Long.parseLong(args[++i]) : 2024L;
+                default -> filter = Pattern.compile(args[i]);
+            }
+        }
+
+        GoldenAnswers.verify(filter, "before benchmarking");
+
+        var options = new Bench.Options(warmups, iterations, millis);
+        var benchmarks = new DayBenchmarks(scales, seed);
+        System.out.println(Bench.header());
+        for (var benchmark : benchmarks.benchmarks) {
+            if (filter.matcher(benchmark.name).find()) {
+                benchmark.run(options);
+            }
+        }
+
+        GoldenAnswers.verify(filter, "after benchmarking");
+    }
+
+    /**
+     * @param scales the scales to benchmark at
+     * @param seed the seed of the generated inputs, or null to scale the puzzle inputs
+     */
+    DayBenchmarks(int[] scales, Long seed) {
+        this.scales = scales;
+        this.seed = seed;
+        register("Day01", scales, DayBenchmarks::repeatLines, Day01::parseInput,
+                "doPart1", in -> Day01.doPart1(in.list1().clone(), in.list2().clone()),
+                "doPart2", in -> Day01.doPart2(in.list1(), in.list2()));
+        register("Day01.parallel", scales, DayBenchmarks::repeatLines, in -> Day01.parseInput(in, POOL),
+                "doPart1", in -> Day01.doPart1(in.list1().clone(), in.list2().clone(), POOL),
+                "doPart2", in -> Day01.doPart2(in.list1(), in.list2(), POOL));
+        register("Day02", scales, DayBenchmarks::repeatLines, Day02::parseInput,
+                "doPart1", Day02::doPart1,
+                "doPart2", Day02::doPart2);
+        register("Day03", scales, String::repeat, ByteCursor::asString,
+                "parse(part1)", in -> Day03.parse(in, false),
+                "parse(part2)", in -> Day03.parse(in, true));
+        register("Day03.scan", scales, String::repeat, in -> in,
+                "scan", in -> Day03.scan(in, in.position(), in.limit()));
+        register("Day03.parallel", scales, String::repeat, in -> in,
+                "scan", in -> Day03.scan(in, POOL));
+        register("Day04", scales, DayBenchmarks::tileGrid, Day04::parseInput,
+                "doPart1", Day04::doPart1,
+                "doPart2", Day04::doPart2);
+        register("Day04.parallel", scales, DayBenchmarks::tileGrid, Day04::parseInput,
+                "doPart1", in -> Day04.doPart1(in, POOL),
+                "doPart2", in -> Day04.doPart2(in, POOL));
+        register("Day05", scales, (in, n) -> repeatSection(in, n, 1), Day05::parseInput,
+                "doPart1", in -> Day05.doPart1(in.rules(), in.updates()),
+                "doPart2", in -> Day05.doPart2(in.rules(), in.updates()));
+        register("Day06", FIXED, null, Day06::parseInput,
+                "doPart1", Day06::doPart1,
+                "doPart2", Day06::doPart2);
+        register("Day07", scales, DayBenchmarks::repeatLines, Day07::parseInput,
+                "searchAll(part1)", in -> Day07.searchAll(in, false),
+                "searchAll(part2)", in -> Day07.searchAll(in, true));
+        register("Day08", scales, DayBenchmarks::tileGrid, Day08::parseInput,
+                "doPart1", Day08::doPart1,
+                "doPart2", Day08::doPart2);
+        register("Day09", scales, (in, n) -> repeatJoined(in, n, "0"), decoded(Day09::parseInput),
+                "doPart1", Day09::doPart1,
+                "doPart2", Day09::doPart2);
+        register("Day10", scales, DayBenchmarks::tileGrid, Day10::parseInput,
+                "doPart1", Day10::doPart1,
+                "doPart2", Day10::doPart2);
+        register("Day11", scales, (in, n) -> repeatJoined(in, n, " "), decoded(Day11::parseInput),
+                "countForList(25)", in -> Day11.countForList(in, 25),
+                "countForList(75)", in -> Day11.countForList(in, 75));
+        register("Day12", scales, DayBenchmarks::tileGrid, Day12::parseInput,
+                "doPart1", Day12::doPart1,
+                "doPart2", Day12::doPart2);
+        register("Day13", scales, (in, n) -> repeatJoined(in, n, "\n\n"), Day13::parseInput,
+                "calculate(part1)", in -> Day13.calculate(in, 0),
+                "calculate(part2)", in -> Day13.calculate(in, 10000000000000L));
+        register("Day14", scales, DayBenchmarks::repeatLines, Day14::parseInput,
+                "doPart1", Day14::doPart1,
+                "doPart2", Day14::doPart2);
+        register("Day15", scales, (in, n) -> repeatSection(in, n, 1), Day15::parseInput,
+                "doPart1", in -> Day15.doPart1(in.grid(), in.moves()),
+                "doPart2", in -> Day15.doPart2(in.grid(), in.moves()));
+        register("Day16", FIXED, null, Day16::parseInput,
+                "execute", Day16::execute);
+        register("Day17", FIXED, null, decoded(Day17::parseInput),
+                "runProgram", in -> Day17.runProgram(in.program(), in.registers().clone()));
+        register("Day18", FIXED, null, Day18::parseInput,
+                "doPart1", Day18::doPart1,
+                "doPart2", Day18::doPart2);
+        register("Day19", scales, (in, n) -> repeatSection(in, n, 1), decoded(Day19::parseInput),
+                "doPart1", in -> Day19.doPart1(in.towels(), in.patterns()),
+                "doPart2", in -> Day19.doPart2(in.towels(), in.patterns()));
+        register("Day20", FIXED, null, Day20::parseInput,
+                "execute(2)", in -> Day20.execute(in, 2),
+                "execute(20)", in -> Day20.execute(in, 20));
+    }
+
+    private <T> void register(
+            String day, int[] scales, BiFunction<String, Integer, String> scaler, Function<ByteCursor, T> parser,
+            String part1, Function<T, Object> op1) {
+        register(day, scales, scaler, parser, part1, op1, null, null);
+    }
+
+    private <T> void register(
+            String day, int[] scales, BiFunction<String, Integer, String> scaler, Function<ByteCursor, T> parser,
+            String part1, Function<T, Object> op1, String part2, Function<T, Object> op2) {
+        var ops = new ArrayList<Op<T>>();
+        ops.add(new Op<>(day + "." + part1, op1));
+        if (part2 != null) {
+            ops.add(new Op<>(day + "." + part2, op2));
+        }
+        Input input;
+        if (seed != null) {
+            var n = Integer.parseInt(day.substring(3, 5));
+            scales = InputGenerator.scales(n) ? this.scales : FIXED;
+            input = scale -> ByteCursor.map(InputGenerator.generate(n, InputGenerator.sizeFor(n, scale), seed));
+        } else {
+            var path = Path.of("resources/" + day.substring(0, 5).toLowerCase());
+            input = scale -> {
+                var original = Files.readString(path);
+                return ByteCursor.of(scale == 1 ? original : scaler.apply(original, scale));
+            };
+        }
+        benchmarks.add(new Benchmark<>(day, scales, input, parser, ops));
+    }
+
+    /**
+     * Adapts a parser of the decoded input, for the days that do not parse bytes directly.
+     */
+    static <T> Function<ByteCursor, T> decoded(Function<String, T> parser) {
+        return input -> parser.apply(input.asString());
+    }
+
+    static String repeatLines(String input, int n) {
+        return input.endsWith("\n") ? input.repeat(n) : (input + "\n").repeat(n);
+    }
+
+    static String repeatJoined(String input, int n, String separator) {
+        var stripped = input.strip();
+        return String.join(separator, Collections.nCopies(n, stripped));
+    }
+
+    /**
+     * Keeps the first {@code fixedSections} blank-line separated sections of the input and repeats the rest.
+     */
+    static String repeatSection(String input, int n, int fixedSections) {
+        var sections = input.strip().split("\n\n");
+        var fixed = String.join("\n\n", Arrays.asList(sections).subList(0, fixedSections));
+        var repeated = String.join("\n\n", Arrays.asList(sections).subList(fixedSections, sections.length));
+        return fixed + "\n\n" + repeatLines(repeated, n);
+    }
+
+    static String tileGrid(String input, int n) {
+        return input.lines().map(line -> line.repeat(n)).collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    @FunctionalInterface
+    private interface Input {
+        ByteCursor at(int scale) throws IOException;
+    }
+
+    private record Op<T>(String name, Function<T, Object> fn) {}
+
+    private record Benchmark<T>(
+            String name, int[] scales, Input input, Function<ByteCursor, T> parser, List<Op<T>> ops) {
+
+        void run(Bench.Options options) {
+            try {
+                for (var scale : scales) {
+                    var raw = input.at(scale);
+                    System.out.println(Bench.run(name + ".parse", scale, () -> {
+                        raw.rewind();
+                        return parser.apply(raw);
+                    }, options));
+                    raw.rewind();
+                    var parsed = parser.apply(raw);
+                    for (var op : ops) {
+                        System.out.println(Bench.run(op.name, scale, () -> op.fn.apply(parsed), options));
+                    }
+                }
+            } catch (IOException | RuntimeException | StackOverflowError e) {
+                System.out.println(name + " failed: " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package advent2024;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the answers of every solver, on the puzzle inputs, against the golden answers in
+ * {@code resources/answers.properties}.
+ *
+ * <p>Usage, from the repository root:
+ * <pre>
+ * java -cp out advent2024.GoldenAnswers [regex]
+ * </pre>
+ * The regex selects days by name, e.g., {@code "Day0[12]"}, as in {@link DayBenchmarks}.
+ * The exit status is 1 if any answer does not match.
+ *
+ * <p>{@link DayBenchmarks} checks the benchmarked days before and after benchmarking, so that an optimization that
+ * changes an answer fails the run instead of reporting a faster, wrong solver.
+ */
+public final class GoldenAnswers {
+
+    private static final Path MANIFEST = Path.of("resources/answers.properties");
+
+    private GoldenAnswers() {}
+
+    public static void main(String[] args) throws IOException {
+        var filter = Pattern.compile(args.length > 0 ? args[0] : ".*");
+        verify(filter, "check");
+        System.out.println("All answers match " + MANIFEST);
+    }
+
+    /**
+     * Checks the answers of the selected days and exits with status 1, after printing every mismatch, if any answer
+     * does not match.
+     *
+     * @param filter selects days by name, e.g., {@code Day01}
+     * @param when when the check is made, for the report, e.g., "before benchmarking"
+     * @throws IOException if the manifest or an input cannot be read
+     */
+    static void verify(Pattern filter, String when) throws IOException {
+        var mismatches = check(filter);
+        if (!mismatches.isEmpty()) {
+            System.err.println("GOLDEN ANSWER MISMATCH (" + when + "), see " + MANIFEST + ":");
+            mismatches.forEach(mismatch -> System.err.println("  " + mismatch));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Solves the selected days and compares the answers with the golden answers.
+     *
+     * @param filter selects days by name, e.g., {@code Day01}
+     * @return a description of each mismatch, empty if every answer matches
+     * @throws IOException if the manifest or an input cannot be read
+     */
+    static List<String> check(Pattern filter) throws IOException {
+        var golden = new Properties();
+        try (Reader reader = Files.newBufferedReader(MANIFEST, StandardCharsets.UTF_8)) {
+            golden.load(reader);
+        }
+
+        var mismatches = new ArrayList<String>();
+        var out = System.out;
+        // some days print their grids
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (var day = 1; day <= Solvers.days(); day++) {
+                var name = String.format("Day%02d", day);
+                if (!filter.matcher(name).find()) {
+                    continue;
+                }
+                Object[] answers;
+                try {
+                    var run = Runner.solve(day, Solvers.get(day), ByteCursor.map(Path.of(Solvers.defaultInput(day))));
+                    answers = new Object[] { run.part1(), run.part2() };
+                } catch (RuntimeException | StackOverflowError e) {
+                    mismatches.add(name + " failed: " + e);
+                    continue;
+                }
+                for (var part = 1; part <= 2; part++) {
+                    var key = name.toLowerCase() + ".part" + part;
+                    var expected = golden.getProperty(key);
+                    var actual = answers[part - 1] == null ? "-" : answers[part - 1].toString();
+                    if (expected == null) {
+                        mismatches.add(key + ": no golden answer, got " + actual);
+                    } else if (!expected.equals(actual)) {
+                        mismatches.add(key + ": expected " + expected + ", got " + actual);
+                    }
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+        return mismatches;
+    }
+}
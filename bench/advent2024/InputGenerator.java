@@ -0,0 +1,723 @@
+package advent2024;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates seeded, synthetic puzzle inputs of any size, in the format of each day's puzzle input, for exercising the
+ * solvers and benchmarks at sizes far beyond the ~20 KB puzzle inputs.
+ *
+ * <p>Usage, from the repository root:
+ * <pre>
+ * java -cp out advent2024.InputGenerator [-seed n] [-o dir] day [size]
+ * </pre>
+ * e.g., {@code java -cp out advent2024.InputGenerator 1 10000000} writes ten million Day01 pairs and prints the path.
+ * Without a size the generator writes an input the size of the puzzle input.
+ * Files are written to {@code $TMPDIR/advent2024} by default, named by day, size, and seed, and reused if they
+ * already exist since the same seed always generates the same input.
+ *
+ * <p>The size of an input is the number of records (lines, reports, machines, robots, stones, designs, etc.), or, for
+ * the grid days, the number of rows and columns of a square grid.
+ * Day03 is sized in bytes, Day09 in digits, and Day17 in octal digits of register A.
+ * {@link #sizeFor(int, int)} converts a scale relative to the puzzle input to a size, so a grid at scale 100 has 100
+ * times the cells, not the rows.
+ *
+ * <p>The inputs are valid for the solvers as written, which rules out some random inputs:
+ * <ul>
+ *     <li>Day05 rules form a circular order so every page has predecessors, and each update is ordered by them.
+ *     <li>Day06 starts the guard where its route leaves the grid so that part 1 ends.
+ *     <li>Day14 always has a picture: a square of robots that forms at a random second. Beyond a few thousand
+ *     robots, random clusters are large enough to pass for the picture much sooner.
+ *     <li>Day16 is a random maze with extra openings so there are several shortest routes.
+ *     <li>Day18 is a random order of the cells of the fixed 71x71 grid that is open after 1024 bytes and closed
+ *     by the last one.
+ *     <li>Day20 is a single track, the route through a random maze.
+ * </ul>
+ */
+public final class InputGenerator {
+
+    private static final Path DEFAULT_DIR = Path.of(System.getProperty("java.io.tmpdir"), "advent2024");
+    private static final int SECTION = 1 << 16;
+
+    /**
+     * The generators, by day, with the size of the puzzle input.
+     */
+    private static final Generator[] GENERATORS = {
+            null,
+            new Generator(1000, Shape.RECORDS, InputGenerator::day01),
+            new Generator(1000, Shape.RECORDS, InputGenerator::day02),
+            new Generator(20000, Shape.RECORDS, InputGenerator::day03),
+            new Generator(140, Shape.GRID, InputGenerator::day04),
+            new Generator(200, Shape.RECORDS, InputGenerator::day05),
+            new Generator(130, Shape.GRID, InputGenerator::day06),
+            new Generator(850, Shape.RECORDS, InputGenerator::day07),
+            new Generator(50, Shape.GRID, InputGenerator::day08),
+            new Generator(19999, Shape.RECORDS, InputGenerator::day09),
+            new Generator(45, Shape.GRID, InputGenerator::day10),
+            new Generator(8, Shape.RECORDS, InputGenerator::day11),
+            new Generator(140, Shape.GRID, InputGenerator::day12),
+            new Generator(320, Shape.RECORDS, InputGenerator::day13),
+            new Generator(500, Shape.RECORDS, InputGenerator::day14),
+            new Generator(50, Shape.GRID, InputGenerator::day15),
+            new Generator(141, Shape.GRID, InputGenerator::day16),
+            new Generator(16, Shape.FIXED, InputGenerator::day17),
+            new Generator(3450, Shape.FIXED, InputGenerator::day18),
+            new Generator(400, Shape.RECORDS, InputGenerator::day19),
+            new Generator(141, Shape.GRID, InputGenerator::day20),
+    };
+
+    private InputGenerator() {}
+
+    public static void main(String[] args) throws IOException {
+        var seed = 2024L;
+        var dir = DEFAULT_DIR;
+        var positional = new ArrayList<Integer>();
+        for (var i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-seed" -> seed = Long.parseLong(args[++i]);
+                case "-o" -> dir = Path.of(args[++i]);
+                default -> positional.add(Integer.parseInt(args[i]));
+            }
+        }
+        if (positional.isEmpty()) {
+            System.err.println("Usage: InputGenerator [-seed n] [-o dir] day [size]");
+            System.exit(1);
+        }
+
+        var day = positional.get(0);
+        var size = positional.size() > 1 ? positional.get(1) : sizeFor(day, 1);
+        System.out.println(generate(day, size, seed, dir));
+    }
+
+    /**
+     * Returns whether the input of a day can be scaled.
+     * Day17 (a program) and Day18 (a fixed 71x71 grid) can be generated, but not made larger.
+     *
+     * @param day the day
+     * @return true if the input scales
+     */
+    public static boolean scales(int day) {
+        return generator(day).shape != Shape.FIXED;
+    }
+
+    /**
+     * Converts a scale relative to the puzzle input to the size of a generated input.
+     *
+     * @param day the day
+     * @param scale the scale, e.g., 10 for 10 times the puzzle input
+     * @return the size
+     */
+    public static int sizeFor(int day, int scale) {
+        var generator = generator(day);
+        return switch (generator.shape) {
+            case RECORDS -> Math.multiplyExact(generator.size, scale);
+            case GRID -> (int) Math.round(generator.size * Math.sqrt(scale));
+            case FIXED -> generator.size;
+        };
+    }
+
+    /**
+     * Generates an input in the default directory, or returns the existing file.
+     *
+     * @see #generate(int, int, long, Path)
+     */
+    public static Path generate(int day, int size, long seed) throws IOException {
+        return generate(day, size, seed, DEFAULT_DIR);
+    }
+
+    /**
+     * Generates an input, or returns the existing file if the input has already been generated.
+     *
+     * @param day the day
+     * @param size the size of the input, see the class description
+     * @param seed the seed
+     * @param dir the directory to write to
+     * @return the path of the input
+     * @throws IOException if the input cannot be written
+     */
+    public static Path generate(int day, int size, long seed, Path dir) throws IOException {
+        var generator = generator(day);
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        var path = dir.resolve(String.format("day%02d-%d-%d", day, size, seed));
+        if (Files.exists(path)) {
+            return path;
+        }
+
+        // write to a temporary file first so that an interrupted run never leaves a partial input behind
+        Files.createDirectories(dir);
+        var tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try (var out = new BufferedWriter(Files.newBufferedWriter(tmp, StandardCharsets.US_ASCII), SECTION)) {
+            generator.writer.write(new Random(seed), size, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Generator generator(int day) {
+        if (day < 1 || day >= GENERATORS.length) {
+            throw new IllegalArgumentException("no generator for day " + day);
+        }
+        return GENERATORS[day];
+    }
+
+    // pairs of 5 digit location ids, with many repeats at large sizes
+    private static void day01(Random random, int size, Writer out) throws IOException {
+        for (var i = 0; i < size; i++) {
+            out.write(between(random, 10000, 99999) + "   " + between(random, 10000, 99999) + "\n");
+        }
+    }
+
+    // reports of 5 to 8 levels, about half with one or two bad levels
+    private static void day02(Random random, int size, Writer out) throws IOException {
+        for (var i = 0; i < size; i++) {
+            var levels = new int[between(random, 5, 8)];
+            var increasing = random.nextBoolean();
+            levels[0] = increasing ? between(random, 1, 75) : between(random, 25, 99);
+            for (var j = 1; j < levels.length; j++) {
+                var step = between(random, 1, 3);
+                levels[j] = levels[j - 1] + (increasing ? step : -step);
+            }
+            var bad = random.nextInt(10) < 5 ? 1 : random.nextInt(10) < 2 ? 2 : 0;
+            for (var j = 0; j < bad; j++) {
+                levels[random.nextInt(levels.length)] = between(random, 1, 99);
+            }
+            out.write(join(levels, " ") + "\n");
+        }
+    }
+
+    // corrupted memory: valid and broken mul instructions, do() and don't(), and noise, in lines of about 4 KB
+    private static void day03(Random random, int size, Writer out) throws IOException {
+        String[] noise = { "who()", "what()", "why()", "where()", "when()", "from()", "select()", "how()",
+                "mul[", "mul (", "mul(", "do(", "don't", ")", "(", ",", " ", "'", "%", "#", "@", "!", "*", "{", "}",
+                "<", ">", "?", "&", "+", "-", "/", ":", ";", "[", "]", "^", "~", "$" };
+        var written = 0;
+        var line = 0;
+        while (written < size) {
+            var token = switch (random.nextInt(20)) {
+                case 0 -> "do()";
+                case 1 -> "don't()";
+                case 2 -> "mul(" + between(random, 1, 999) + "," + between(random, 1, 999);
+                case 3 -> "mul(" + between(random, 1, 9999) + "," + between(random, 1, 9999) + ")";
+                case 4, 5, 6, 7, 8 -> "mul(" + between(random, 1, 999) + "," + between(random, 1, 999) + ")";
+                default -> noise[random.nextInt(noise.length)];
+            };
+            line += token.length();
+            if (line > 4000) {
+                token += "\n";
+                line = 0;
+            }
+            out.write(token);
+            written += token.length();
+        }
+        out.write("\n");
+    }
+
+    // uniformly random letters of "XMAS"
+    private static void day04(Random random, int size, Writer out) throws IOException {
+        grid(size, out, (row, col) -> "XMAS".charAt(random.nextInt(4)));
+    }
+
+    // 49 pages in a circle, each page before the next 24, with updates from windows of 25 consecutive pages
+    private static void day05(Random random, int size, Writer out) throws IOException {
+        var pages = distinct(random, 49, 10, 99);
+        for (var i = 0; i < pages.length; i++) {
+            for (var j = 1; j <= 24; j++) {
+                out.write(pages[i] + "|" + pages[(i + j) % pages.length] + "\n");
+            }
+        }
+        out.write("\n");
+
+        var window = new ArrayList<Integer>();
+        for (var i = 0; i <= 24; i++) {
+            window.add(i);
+        }
+        for (var i = 0; i < size; i++) {
+            var start = random.nextInt(pages.length);
+            Collections.shuffle(window, random);
+            var update = new ArrayList<>(window.subList(0, 2 * between(random, 2, 11) + 1));
+            if (random.nextBoolean()) {
+                // in order, otherwise left shuffled
+                Collections.sort(update);
+            }
+            var line = new int[update.size()];
+            for (var j = 0; j < line.length; j++) {
+                line[j] = pages[(start + update.get(j)) % pages.length];
+            }
+            out.write(join(line, ",") + "\n");
+        }
+    }
+
+    // sparse obstructions, and the guard at the start, of 64 tried, with the longest route that leaves the grid
+    private static void day06(Random random, int size, Writer out) throws IOException {
+        var grid = new byte[size * size];
+        for (var i = 0; i < grid.length; i++) {
+            grid[i] = (byte) (random.nextInt(1000) < 15 ? '#' : '.');
+        }
+
+        var seen = new BitSet(4 * grid.length);
+        var start = random.nextInt(grid.length);
+        var longest = -1L;
+        for (var i = 0; i < 64; i++) {
+            var candidate = random.nextInt(grid.length);
+            if (grid[candidate] != '#') {
+                var moves = walk(grid, size, candidate, seen);
+                if (moves > longest) {
+                    start = candidate;
+                    longest = moves;
+                }
+            }
+        }
+        grid[start] = '.';
+
+        // if every start loops, remove the last obstruction hit until the guard leaves the grid
+        var moves = longest;
+        while (moves < 0) {
+            grid[(int) (-1 - moves)] = '.';
+            moves = walk(grid, size, start, seen);
+        }
+        grid[start] = '^';
+        grid(size, out, (row, col) -> (char) grid[row * size + col]);
+    }
+
+    /**
+     * Walks the guard from a start cell, facing up.
+     *
+     * @return the number of moves to leave the grid, or, if the guard loops, {@code -1 - cell} of the last
+     *         obstruction hit
+     */
+    private static long walk(byte[] grid, int size, int start, BitSet seen) {
+        int[][] steps = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
+        seen.clear();
+        var row = start / size;
+        var col = start % size;
+        var dir = 0;
+        var lastHit = -1;
+        var moves = 0L;
+        while (true) {
+            var state = 4 * (row * size + col) + dir;
+            if (seen.get(state)) {
+                return -1L - lastHit;
+            }
+            seen.set(state);
+            var nextRow = row + steps[dir][0];
+            var nextCol = col + steps[dir][1];
+            if (nextRow < 0 || nextRow >= size || nextCol < 0 || nextCol >= size) {
+                return moves;
+            }
+            if (grid[nextRow * size + nextCol] == '#') {
+                lastHit = nextRow * size + nextCol;
+                dir = (dir + 1) % 4;
+            } else {
+                row = nextRow;
+                col = nextCol;
+                moves++;
+            }
+        }
+    }
+
+    // equations built by applying random operators, some made unsolvable by changing the test value
+    private static void day07(Random random, int size, Writer out) throws IOException {
+        for (var i = 0; i < size; i++) {
+            var values = new int[between(random, 3, 12)];
+            for (var j = 0; j < values.length; j++) {
+                values[j] = random.nextInt(10) < 7 ? between(random, 1, 9) : between(random, 10, 999);
+            }
+            var total = (long) values[0];
+            for (var j = 1; j < values.length; j++) {
+                var value = values[j];
+                var next = switch (random.nextInt(3)) {
+                    case 0 -> total * value;
+                    case 1 -> Long.parseLong(total + "" + value);
+                    default -> total + value;
+                };
+                // keep the test value well inside a long
+                total = next < 100_000_000_000_000L ? next : total + value;
+            }
+            if (random.nextInt(10) < 3) {
+                total++;
+            }
+            out.write(total + ": " + join(values, " ") + "\n");
+        }
+    }
+
+    // about 3.3 antennas per row, spread over all 62 frequencies
+    private static void day08(Random random, int size, Writer out) throws IOException {
+        var frequencies = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+        var grid = new char[size * size];
+        Arrays.fill(grid, '.');
+        var antennas = Math.min(grid.length, size * 10 / 3);
+        for (var i = 0; i < antennas; i++) {
+            grid[random.nextInt(grid.length)] = frequencies.charAt(random.nextInt(frequencies.length()));
+        }
+        grid(size, out, (row, col) -> grid[row * size + col]);
+    }
+
+    // a disk map of an odd number of digits, so that it ends with a file, on one line without a line break
+    private static void day09(Random random, int size, Writer out) throws IOException {
+        var digits = size % 2 == 0 ? size + 1 : size;
+        for (var i = 0; i < digits; i++) {
+            out.write('0' + (i % 2 == 0 ? between(random, 1, 9) : random.nextInt(10)));
+        }
+    }
+
+    // a topographic map of diagonal ramps from 0 to 9, with one in ten heights random to break up trails
+    private static void day10(Random random, int size, Writer out) throws IOException {
+        grid(size, out, (row, col) -> (char) ('0' + (random.nextInt(10) == 0 ? random.nextInt(10) : (row + col) % 10)));
+    }
+
+    // stones of one to seven digits, on one line without a line break
+    private static void day11(Random random, int size, Writer out) throws IOException {
+        var stones = new int[size];
+        for (var i = 0; i < size; i++) {
+            stones[i] = random.nextBoolean() ? random.nextInt(100) : random.nextInt(10_000_000);
+        }
+        out.write(join(stones, " "));
+    }
+
+    // irregular regions: each plot mostly copies the plant above or to the left
+    private static void day12(Random random, int size, Writer out) throws IOException {
+        var plots = new char[size * size];
+        for (var row = 0; row < size; row++) {
+            for (var col = 0; col < size; col++) {
+                var i = row * size + col;
+                var copy = random.nextInt(10);
+                if (copy < 4 && col > 0) {
+                    plots[i] = plots[i - 1];
+                } else if (copy < 8 && row > 0) {
+                    plots[i] = plots[i - size];
+                } else {
+                    plots[i] = (char) ('A' + random.nextInt(26));
+                }
+            }
+        }
+        grid(size, out, (row, col) -> plots[row * size + col]);
+    }
+
+    // claw machines, about half with a prize that can be won
+    private static void day13(Random random, int size, Writer out) throws IOException {
+        for (var i = 0; i < size; i++) {
+            var ax = between(random, 10, 99);
+            var ay = between(random, 10, 99);
+            var bx = between(random, 10, 99);
+            var by = between(random, 10, 99);
+            var a = between(random, 1, 100);
+            var b = between(random, 1, 100);
+            var prizeX = a * ax + b * bx + (random.nextBoolean() ? 0 : between(random, 1, 50));
+            var prizeY = a * ay + b * by;
+            out.write((i > 0 ? "\n" : "") + "Button A: X+" + ax + ", Y+" + ay + "\n"
+                    + "Button B: X+" + bx + ", Y+" + by + "\n"
+                    + "Prize: X=" + prizeX + ", Y=" + prizeY + "\n");
+        }
+    }
+
+    // random robots plus an 11x11 square of robots that forms after a random number of seconds
+    private static void day14(Random random, int size, Writer out) throws IOException {
+        final int width = 101;
+        final int height = 103;
+        var seconds = between(random, 1, width * height - 1);
+        var top = random.nextInt(height - 11);
+        var left = random.nextInt(width - 11);
+        var picture = Math.min(size, 121);
+        for (var i = 0; i < size; i++) {
+            var vx = between(random, -99, 99);
+            var vy = between(random, -99, 99);
+            int x;
+            int y;
+            if (i < picture) {
+                // run the robot backwards from its place in the picture
+                x = Math.floorMod(left + i % 11 - (long) vx * seconds, width);
+                y = Math.floorMod(top + i / 11 - (long) vy * seconds, height);
+            } else {
+                x = random.nextInt(width);
+                y = random.nextInt(height);
+            }
+            out.write("p=" + x + "," + y + " v=" + vx + "," + vy + "\n");
+        }
+    }
+
+    // a walled warehouse with boxes, walls, and a robot, followed by 8 moves per cell in lines of 1000
+    private static void day15(Random random, int size, Writer out) throws IOException {
+        var robot = between(random, 1, size - 2) * size + between(random, 1, size - 2);
+        grid(size, out, (row, col) -> {
+            if (row == 0 || col == 0 || row == size - 1 || col == size - 1) {
+                return '#';
+            } else if (row * size + col == robot) {
+                return '@';
+            }
+            var c = random.nextInt(100);
+            return c < 5 ? '#' : c < 30 ? 'O' : '.';
+        });
+        out.write("\n");
+        var moves = 8L * size * size;
+        for (var i = 0L; i < moves; i++) {
+            out.write("^>v<".charAt(random.nextInt(4)));
+            if (i % 1000 == 999 || i == moves - 1) {
+                out.write("\n");
+            }
+        }
+    }
+
+    // a random maze with 2% of the inner walls between two passages opened so that routes can tie
+    private static void day16(Random random, int size, Writer out) throws IOException {
+        var side = odd(size);
+        var grid = maze(random, side);
+        for (var row = 1; row < side - 1; row++) {
+            for (var col = 1; col < side - 1; col++) {
+                var i = row * side + col;
+                if (grid[i] == '#' && (row + col) % 2 == 1 && random.nextInt(100) < 2) {
+                    grid[i] = '.';
+                }
+            }
+        }
+        grid[(side - 2) * side + 1] = 'S';
+        grid[side + side - 2] = 'E';
+        grid(side, out, (row, col) -> (char) grid[row * side + col]);
+    }
+
+    // a program like the puzzle's with random operands, and a random register A of size octal digits
+    private static void day17(Random random, int size, Writer out) throws IOException {
+        var a = 1L + random.nextInt(7);
+        for (var i = 1; i < Math.min(size, 21); i++) {
+            a = a << 3 | random.nextInt(8);
+        }
+        out.write("Register A: " + a + "\nRegister B: 0\nRegister C: 0\n\n"
+                + "Program: 2,4,1," + random.nextInt(8) + ",7,5,1," + random.nextInt(8) + ",0,3,4,2,5,5,3,0\n");
+    }
+
+    // cells of the 71x71 grid in random order, open after the first 1024, at least up to the one that closes it
+    private static void day18(Random random, int size, Writer out) throws IOException {
+        final int side = 71;
+        var cells = new ArrayList<Integer>();
+        for (var i = 1; i < side * side - 1; i++) {
+            cells.add(i);
+        }
+        do {
+            Collections.shuffle(cells, random);
+        } while (!isOpen(cells, 1024, side));
+
+        // binary search for the first byte that closes the route
+        var low = 1024;
+        var high = cells.size();
+        while (low < high) {
+            var mid = (low + high) / 2;
+            if (isOpen(cells, mid + 1, side)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        var count = Math.min(cells.size(), Math.max(size, low + 1));
+        for (var i = 0; i < count; i++) {
+            out.write(cells.get(i) % side + "," + cells.get(i) / side + "\n");
+        }
+    }
+
+    // 447 towels of 1 to 8 colors, missing one single color, and designs of 40 to 60 colors, most made of towels
+    private static void day19(Random random, int size, Writer out) throws IOException {
+        var colors = "wubrg";
+        var missing = colors.charAt(random.nextInt(colors.length()));
+        var towels = new HashSet<String>();
+        for (var c : colors.toCharArray()) {
+            if (c != missing) {
+                towels.add(String.valueOf(c));
+            }
+        }
+        while (towels.size() < 447) {
+            var towel = new StringBuilder();
+            for (var i = between(random, 2, 8); i > 0; i--) {
+                towel.append(colors.charAt(random.nextInt(colors.length())));
+            }
+            towels.add(towel.toString());
+        }
+        var towelList = new ArrayList<>(towels);
+        Collections.sort(towelList);
+        Collections.shuffle(towelList, random);
+        out.write(String.join(", ", towelList) + "\n\n");
+
+        for (var i = 0; i < size; i++) {
+            var length = between(random, 40, 60);
+            var design = new StringBuilder();
+            var fromTowels = random.nextInt(10) < 6;
+            while (design.length() < length) {
+                if (fromTowels) {
+                    design.append(towelList.get(random.nextInt(towelList.size())));
+                } else {
+                    design.append(colors.charAt(random.nextInt(colors.length())));
+                }
+            }
+            out.write(design + "\n");
+        }
+    }
+
+    // a single track from 'S' to 'E': the route between two corners of a random maze
+    private static void day20(Random random, int size, Writer out) throws IOException {
+        var side = odd(size);
+        var maze = maze(random, side);
+        var track = new byte[side * side];
+        Arrays.fill(track, (byte) '#');
+
+        // the maze is a tree, so the route from 'E' back to 'S' is found by walking away from dead ends
+        var start = (side - 2) * side + 1;
+        var end = side + side - 2;
+        var parent = new int[side * side];
+        Arrays.fill(parent, -1);
+        var queue = new int[side * side];
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = start;
+        parent[start] = start;
+        int[] offsets = { -side, 1, side, -1 };
+        while (head < tail) {
+            var cell = queue[head++];
+            for (var offset : offsets) {
+                var next = cell + offset;
+                if (maze[next] == '.' && parent[next] < 0) {
+                    parent[next] = cell;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        for (var cell = end; cell != start; cell = parent[cell]) {
+            track[cell] = '.';
+        }
+        track[start] = 'S';
+        track[end] = 'E';
+        grid(side, out, (row, col) -> (char) track[row * side + col]);
+    }
+
+    /**
+     * Carves a perfect maze, with a depth first search, into a grid of walls.
+     * Passages are the cells at odd rows and columns and the cells between them.
+     */
+    private static byte[] maze(Random random, int side) {
+        var grid = new byte[side * side];
+        Arrays.fill(grid, (byte) '#');
+        int[] offsets = { -2 * side, 2, 2 * side, -2 };
+        var start = (side - 2) * side + 1;
+        grid[start] = '.';
+        var stack = new int[(side / 2) * (side / 2)];
+        var top = 0;
+        stack[top++] = start;
+        var candidates = new int[4];
+        while (top > 0) {
+            var cell = stack[top - 1];
+            var row = cell / side;
+            var col = cell % side;
+            var count = 0;
+            for (var offset : offsets) {
+                var next = cell + offset;
+                var nextRow = next / side;
+                var nextCol = next % side;
+                if (next > 0 && next < grid.length && Math.abs(nextCol - col) + Math.abs(nextRow - row) == 2
+                        && nextRow > 0 && nextRow < side - 1 && nextCol > 0 && nextCol < side - 1
+                        && grid[next] == '#') {
+                    candidates[count++] = next;
+                }
+            }
+            if (count == 0) {
+                top--;
+            } else {
+                var next = candidates[random.nextInt(count)];
+                grid[(cell + next) / 2] = '.';
+                grid[next] = '.';
+                stack[top++] = next;
+            }
+        }
+        return grid;
+    }
+
+    private static boolean isOpen(List<Integer> cells, int count, int side) {
+        var blocked = new boolean[side * side];
+        for (var i = 0; i < count; i++) {
+            blocked[cells.get(i)] = true;
+        }
+        var queue = new int[side * side];
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = 0;
+        blocked[0] = true;
+        while (head < tail) {
+            var cell = queue[head++];
+            if (cell == side * side - 1) {
+                return true;
+            }
+            var row = cell / side;
+            var col = cell % side;
+            for (var next : new int[] {
+                    row > 0 ? cell - side : -1, col < side - 1 ? cell + 1 : -1,
+                    row < side - 1 ? cell + side : -1, col > 0 ? cell - 1 : -1 }) {
+                if (next >= 0 && !blocked[next]) {
+                    blocked[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void grid(int size, Writer out, Cell cell) throws IOException {
+        var line = new char[size + 1];
+        line[size] = '\n';
+        for (var row = 0; row < size; row++) {
+            for (var col = 0; col < size; col++) {
+                line[col] = cell.at(row, col);
+            }
+            out.write(line);
+        }
+    }
+
+    private static int[] distinct(Random random, int count, int min, int max) {
+        var values = new ArrayList<Integer>();
+        for (var i = min; i <= max; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, random);
+        return values.subList(0, count).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String join(int[] values, String separator) {
+        var sb = new StringBuilder();
+        for (var i = 0; i < values.length; i++) {
+            sb.append(i > 0 ? separator : "").append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    private static int between(Random random, int min, int max) {
+        return min + random.nextInt(max - min + 1);
+    }
+
+    private static int odd(int size) {
+        return Math.max(5, size % 2 == 0 ? size + 1 : size);
+    }
+
+    private enum Shape { RECORDS, GRID, FIXED }
+
+    @FunctionalInterface
+    private interface Cell {
+        char at(int row, int col);
+    }
+
+    @FunctionalInterface
+    private interface InputWriter {
+        void write(Random random, int size, Writer out) throws IOException;
+    }
+
+    private record Generator(int size, Shape shape, InputWriter writer) {}
+}
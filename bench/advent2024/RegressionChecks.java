@@ -0,0 +1,171 @@
+package advent2024;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks edge cases that the puzzle inputs in {@link GoldenAnswers} do not cover, each found in review.
+ *
+ * <p>Usage, from the repository root:
+ * <pre>
+ * java -cp out advent2024.RegressionChecks
+ * </pre>
+ * The exit status is 1 if any check fails.
+ */
+public final class RegressionChecks {
+
+    private RegressionChecks() {}
+
+    public static void main(String[] args) {
+        var failures = new ArrayList<String>();
+        longIntMapRemove(failures);
+        longSetEmptyKey(failures);
+        day01IncrementalChurn(failures);
+        day01Part2KeepsInput(failures);
+        day03MultiByteCharacters(failures);
+        day11MemoKeyRange(failures);
+        if (!failures.isEmpty()) {
+            System.err.println("REGRESSION CHECKS FAILED:");
+            failures.forEach(failure -> System.err.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("All regression checks pass");
+    }
+
+    private static void check(List<String> failures, String name, Object expected, Object actual) {
+        if (!expected.equals(actual)) {
+            failures.add(name + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    /**
+     * Removing from a {@link LongIntMap} shifts entries back, so every remaining key must stay reachable.
+     */
+    private static void longIntMapRemove(List<String> failures) {
+        var random = new Random(2024);
+        var map = new LongIntMap();
+        var expected = new HashMap<Long, Integer>();
+        for (var i = 0; i < 200_000; i++) {
+            // few keys, so that the probe sequences are long and wrap around the table
+            long key = random.nextInt(64) * 1024L;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                check(failures, "LongIntMap.remove(" + key + ")", expected.remove(key) != null, map.remove(key));
+            }
+        }
+        check(failures, "LongIntMap.size()", expected.size(), map.size());
+        expected.forEach((key, value) -> check(failures, "LongIntMap.get(" + key + ")", value, map.get(key, -1)));
+    }
+
+    /**
+     * {@link Long#MIN_VALUE} marks an empty slot of a {@link LongSet}, so it must never be found or removed.
+     */
+    private static void longSetEmptyKey(List<String> failures) {
+        var set = new LongSet();
+        set.add(1);
+        set.add(2);
+        check(failures, "LongSet.contains(Long.MIN_VALUE)", false, set.contains(Long.MIN_VALUE));
+        check(failures, "LongSet.remove(Long.MIN_VALUE) throws", true,
+                throwsException(() -> set.remove(Long.MIN_VALUE)));
+        check(failures, "LongSet.size() after remove(Long.MIN_VALUE)", 2, set.size());
+        check(failures, "LongSet.contains(2) after remove(Long.MIN_VALUE)", true, set.contains(2));
+    }
+
+    /**
+     * Values that come and go in a {@link Day01.Incremental} must not stay in its counts.
+     */
+    private static void day01IncrementalChurn(List<String> failures) {
+        var lists = new Day01.Incremental(new int[] { 3, 4, 2, 1, 3, 3 }, new int[] { 4, 3, 5, 3, 9, 3 });
+        var distinct = lists.distinctValues();
+        for (var value = 10; value < 1_000_000; value++) {
+            lists.add1(value);
+            lists.add2(value + 1);
+            lists.remove1(value);
+            lists.remove2(value + 1);
+        }
+        check(failures, "Day01.Incremental distinct values after churn", distinct, lists.distinctValues());
+        check(failures, "Day01.Incremental distance after churn", 11L, lists.distance());
+        check(failures, "Day01.Incremental similarity after churn", 31L, lists.similarity());
+    }
+
+    /**
+     * Part 2 of {@link Day01} must leave the parsed lists as they are, whatever the parallelism, so that one parsed
+     * input can be solved again.
+     */
+    private static void day01Part2KeepsInput(List<String> failures) {
+        var input = "3   4\n4   3\n2   5\n1   3\n3   9\n3   3\n";
+        for (var parallelism : new int[] { 1, 2 }) {
+            var day = new Day01(parallelism);
+            var lists = day.parse(ByteCursor.of(input));
+            var list1 = lists.list1().clone();
+            var list2 = lists.list2().clone();
+            var name = "Day01 part 2 with parallelism " + parallelism;
+            check(failures, name, 31L, day.part2(lists));
+            check(failures, name + " list 1", Arrays.toString(list1), Arrays.toString(lists.list1()));
+            check(failures, name + " list 2", Arrays.toString(list2), Arrays.toString(lists.list2()));
+        }
+    }
+
+    /**
+     * Day03 scans the UTF-8 bytes of a string, so multi-byte characters must not cut off the instructions after them.
+     */
+    private static void day03MultiByteCharacters(List<String> failures) {
+        var input = "mul(1,2)\u00e9\u20acdon't()\u00fc\ud834\udd1emul(3,4)do()mul(2,2)";
+        check(failures, "Day03 part 1 after multi-byte characters", 18L, Day03.parse(input, false));
+        check(failures, "Day03 part 2 after multi-byte characters", 6L, Day03.parse(input, true));
+    }
+
+    /**
+     * Day11 packs the number and the iterations left into one memo key, so values that do not fit must throw rather
+     * than collide, and the largest numbers that fit must count as a plain simulation does.
+     */
+    private static void day11MemoKeyRange(List<String> failures) {
+        long[] nums = { (1L << 57) - 1, 100_000_000_000_000_000L };
+        check(failures, "Day11 numbers at the memo key limit", simulate(nums, 12), Day11.countForList(nums, 12));
+        check(failures, "Day11 iterations past the memo key", true,
+                throwsException(() -> Day11.countForList(new long[] { 0 }, Day11.MAX_ITERATIONS + 1)));
+        check(failures, "Day11 number past the memo key", true,
+                throwsException(() -> Day11.countForList(new long[] { 1L << 57 }, 1)));
+        check(failures, "Day11 negative number", true, throwsException(() -> Day11.countForList(new long[] { -1 }, 1)));
+        // 17 digits, odd, so multiplying by 2024 leaves the range of the key
+        check(failures, "Day11 product past the memo key", true,
+                throwsException(() -> Day11.countForList(new long[] { 99_999_999_999_999_999L }, 2)));
+    }
+
+    private static long simulate(long[] nums, int iterations) {
+        var list = new ArrayList<Long>();
+        for (var num : nums) {
+            list.add(num);
+        }
+        for (var i = 0; i < iterations; i++) {
+            var next = new ArrayList<Long>();
+            for (var num : list) {
+                var digits = Long.toString(num);
+                if (num == 0) {
+                    next.add(1L);
+                } else if (digits.length() % 2 == 0) {
+                    next.add(Long.parseLong(digits.substring(0, digits.length() / 2)));
+                    next.add(Long.parseLong(digits.substring(digits.length() / 2)));
+                } else {
+                    next.add(2024 * num);
+                }
+            }
+            list = next;
+        }
+        return list.size();
+    }
+
+    private static boolean throwsException(Runnable runnable) {
+        try {
+            runnable.run();
+            return false;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return true;
+        }
+    }
+}
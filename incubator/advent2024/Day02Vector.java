@@ -0,0 +1,44 @@
+package advent2024;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Checks Day02 sequences a vector of adjacent elements at a time with the incubating Vector API.
+ *
+ * <p>Each step loads the elements at {@code i} and {@code i + 1} into two vectors, subtracts them, and compares the
+ * differences with 1 and 3, and with -3 and -1, in masks.
+ * A sequence stays a candidate for increasing while every lane of the first mask is set, and for decreasing while
+ * every lane of the second is; the check stops as soon as neither is.
+ * The differences past the last full vector are checked one at a time.
+ *
+ * <p>Compile and run with {@code --add-modules jdk.incubator.vector}; {@link Day02} loads this class if it can and
+ * checks one element at a time otherwise.
+ */
+final class Day02Vector implements Day02.Validator {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean checkValid(int[] levels, int from, int to) {
+        if (from == to) {
+            // an empty sequence is invalid, as in the scalar check
+            return false;
+        }
+        var increasing = true;
+        var decreasing = true;
+        var i = from;
+        for (var bound = to - 1 - SPECIES.length(); i <= bound && (increasing || decreasing); i += SPECIES.length()) {
+            var diff = IntVector.fromArray(SPECIES, levels, i + 1).sub(IntVector.fromArray(SPECIES, levels, i));
+            increasing &= diff.compare(VectorOperators.GE, 1).and(diff.compare(VectorOperators.LE, 3)).allTrue();
+            decreasing &= diff.compare(VectorOperators.GE, -3).and(diff.compare(VectorOperators.LE, -1)).allTrue();
+        }
+        for (; i < to - 1 && (increasing || decreasing); i++) {
+            var diff = levels[i + 1] - levels[i];
+            increasing &= diff >= 1 && diff <= 3;
+            decreasing &= diff >= -3 && diff <= -1;
+        }
+        return increasing || decreasing;
+    }
+}
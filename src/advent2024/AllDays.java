@@ -0,0 +1,93 @@
+package advent2024;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Solves every day concurrently, in a single JVM, and prints a table of the parse, part 1, and part 2 times for each
+ * day along with the total wall time compared with the sequential total.
+ *
+ * <p>Usage: {@code java advent2024.AllDays [threads]}
+ * Without an argument each task runs on its own virtual thread.
+ * With an argument the tasks run on a {@link java.util.concurrent.ForkJoinPool} with that parallelism.
+ *
+ * <p>Each day is parsed once for part 1 and, independently, once for part 2, so the two parts run concurrently
+ * without sharing a parsed input.
+ * Some parts mutate their input (e.g., {@code Day01.doPart1} sorts the lists in place and {@code Day06.doPart2} places
+ * obstructions on the grid) and would otherwise corrupt the other part.
+ * Both parses are timed and counted in the sequential total.
+ *
+ * <p>Each phase is recorded as a {@link Metrics} phase.
+ *
+ * <p>{@code System.out} is discarded while solving since some days print their grids.
+ */
+public class AllDays {
+
+    public static void main(String[] args) throws IOException {
+        var inputs = new ArrayList<byte[]>();
+        for (var day = 1; day <= Solvers.days(); day++) {
+            inputs.add(Files.readAllBytes(Path.of(Solvers.defaultInput(day))));
+        }
+
+        var out = System.out;
+        var results = new ArrayList<CompletableFuture<DayResult>>();
+        long wallNanos;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try (var executor = args.length > 0
+                ? Executors.newWorkStealingPool(Integer.parseInt(args[0]))
+                : Executors.newVirtualThreadPerTaskExecutor()) {
+            var start = System.nanoTime();
+            for (var day = 1; day <= Solvers.days(); day++) {
+                results.add(solve(day, Solvers.get(day), inputs.get(day - 1), executor));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+            wallNanos = System.nanoTime() - start;
+        } finally {
+            System.setOut(out);
+        }
+
+        System.out.printf("%-6s %12s %12s %12s %12s   %-20s %-20s%n",
+                "Day", "Parse 1 (ms)", "Part 1 (ms)", "Parse 2 (ms)", "Part 2 (ms)", "Part 1", "Part 2");
+        var sequentialNanos = 0L;
+        for (var result : results) {
+            var r = result.join();
+            sequentialNanos += r.parse1.nanos + r.part1.nanos + r.parse2.nanos + r.part2.nanos;
+            System.out.printf("Day%02d  %12.3f %12.3f %12.3f %12.3f   %-20s %-20s%n", r.day,
+                    r.parse1.nanos / 1e6, r.part1.nanos / 1e6, r.parse2.nanos / 1e6, r.part2.nanos / 1e6,
+                    r.part1.value, r.part2.value == null ? "-" : r.part2.value);
+        }
+        System.out.printf("Sequential total: %.3f ms, wall time: %.3f ms, speedup: %.2fx%n",
+                sequentialNanos / 1e6, wallNanos / 1e6, (double) sequentialNanos / wallNanos);
+    }
+
+    private static <T> CompletableFuture<DayResult> solve(
+            int day, Solver<T> solver, byte[] input, ExecutorService executor) {
+        var parse1 = CompletableFuture.supplyAsync(
+                () -> time(day, "parse", () -> solver.parse(ByteCursor.of(input))), executor);
+        var part1 = parse1.thenApplyAsync(parsed -> time(day, "part1", () -> solver.part1(parsed.value)), executor);
+        var parse2 = CompletableFuture.supplyAsync(
+                () -> time(day, "parse", () -> solver.parse(ByteCursor.of(input))), executor);
+        var part2 = parse2.thenApplyAsync(parsed -> time(day, "part2", () -> solver.part2(parsed.value)), executor);
+        return parse1.thenCombine(part1, (parse, p1) -> new DayResult(day, parse, p1, null, null))
+                .thenCombine(parse2, (result, parse) -> new DayResult(day, result.parse1, result.part1, parse, null))
+                .thenCombine(part2, (result, p2) -> new DayResult(day, result.parse1, result.part1, result.parse2, p2));
+    }
+
+    private static <V> Timed<V> time(int day, String phase, Supplier<V> supplier) {
+        var start = System.nanoTime();
+        var value = Metrics.phase(day, phase, supplier);
+        return new Timed<>(value, System.nanoTime() - start);
+    }
+
+    private record Timed<V>(V value, long nanos) {}
+    private record DayResult(
+            int day, Timed<?> parse1, Timed<Object> part1, Timed<?> parse2, Timed<Object> part2) {}
+}
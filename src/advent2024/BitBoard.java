@@ -0,0 +1,286 @@
+package advent2024;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A {@link Grid} of letters as one bitset per letter, each row packed into {@code long} words, that matches small
+ * 2-D {@link Mask}s of letters 64 cells at a time.
+ *
+ * <p>Bit {@code col % 64} of word {@code col / 64} of a row of a letter's board is set if the cell holds the letter.
+ * A mask is a set of letters at offsets from its top-left corner.
+ * For every row, each word of the placements of a mask is the AND of the words of each of its letters, from the row
+ * of the letter and shifted right by its column, so a set bit is a placement where every letter matches.
+ * Each row has a spare zero word at the end, so a shift reads the next word without a bounds check, and columns past
+ * the edge of the grid are zeros that never match.
+ *
+ * <p>The boards are packed eight cells at a time too, comparing a {@code long} of cells with a letter in every byte.
+ */
+public final class BitBoard {
+
+    private static final long LOW_BITS = 0x7f7f7f7f7f7f7f7fL;
+    // moves the low bit of each byte to the top byte, the first byte lowest
+    private static final long GATHER = 0x0102040810204080L;
+
+    private final int rows;
+    private final int cols;
+    // words per row, including the spare
+    private final int width;
+    // the board of each byte value, or null if the grid does not contain it
+    private final long[][] boards = new long[256][];
+
+    private BitBoard(Grid grid, int fromRow, int toRow) {
+        rows = toRow - fromRow;
+        cols = grid.cols();
+        width = (cols + 63) / 64 + 1;
+        // compare each word of cells with each letter seen so far eight cells at a time, then if any cells are left,
+        // add the letters not seen before
+        var letters = new byte[256];
+        var repeated = new long[256];
+        var count = 0;
+        for (var row = 0; row < rows; row++) {
+            for (var from = 0; from < cols; from += 64) {
+                var to = Math.min(from + 64, cols);
+                var start = grid.index(fromRow + row, from);
+                var end = start + ((to - from) & ~7);
+                var i = row * width + (from >>> 6);
+                var matched = 0;
+                for (var k = 0; k < count; k++) {
+                    var word = 0L;
+                    for (var cell = start; cell < end; cell += 8) {
+                        var bits = zeroBytes(grid.getLong(cell) ^ repeated[k]) >>> 7;
+                        word |= (bits * GATHER >>> 56) << cell - start;
+                    }
+                    boards[letters[k] & 0xff][i] = word;
+                    matched += Long.bitCount(word);
+                }
+                if (matched < end - start || end < start + to - from) {
+                    for (var cell = start; cell < start + to - from; cell++) {
+                        var letter = grid.get(cell);
+                        var k = 0;
+                        while (k < count && letters[k] != letter) {
+                            k++;
+                        }
+                        if (k == count) {
+                            letters[count] = letter;
+                            repeated[count++] = (letter & 0xffL) * 0x0101010101010101L;
+                            boards[letter & 0xff] = new long[rows * width];
+                        }
+                        boards[letter & 0xff][i] |= 1L << from + cell - start;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs the letters of a grid.
+     *
+     * @param grid the grid
+     * @return the boards
+     */
+    public static BitBoard of(Grid grid) {
+        return new BitBoard(grid, 0, grid.rows());
+    }
+
+    /**
+     * Packs the letters of a band of rows of a grid, as a board whose first row is the first row of the band.
+     *
+     * @param grid the grid
+     * @param fromRow the first row of the band, inclusive
+     * @param toRow the last row of the band, exclusive
+     * @return the boards
+     */
+    public static BitBoard of(Grid grid, int fromRow, int toRow) {
+        return new BitBoard(grid, fromRow, toRow);
+    }
+
+    /**
+     * Returns the number of placements of masks where all their letters match the grid.
+     *
+     * @param masks the masks
+     * @return the number of matches, summed over the masks
+     */
+    public long count(Mask... masks) {
+        return count(rows, masks);
+    }
+
+    /**
+     * Returns the number of placements of masks, with their top row in the first rows of the board, where all their
+     * letters match the grid.
+     * The rows below are only read, so bands of a grid that overlap by the height of the tallest mask less one count
+     * each placement once.
+     *
+     * @param topRows the number of rows the top row of a placement can be in
+     * @param masks the masks
+     * @return the number of matches, summed over the masks
+     */
+    public long count(int topRows, Mask... masks) {
+        var count = 0L;
+        for (var mask : masks) {
+            count += count(mask, Math.min(topRows, rows - mask.rows + 1));
+        }
+        return count;
+    }
+
+    private long count(Mask mask, int topRows) {
+        var letters = mask.letters.length;
+        var boards = new long[letters][];
+        var offsets = new int[letters];
+        for (var k = 0; k < letters; k++) {
+            boards[k] = this.boards[mask.letters[k] & 0xff];
+            if (boards[k] == null) {
+                return 0;
+            }
+            offsets[k] = mask.dRows[k] * width;
+        }
+
+        var count = 0L;
+        for (var row = 0; row < topRows; row++) {
+            var start = row * width;
+            for (var i = start; i < start + width - 1; i++) {
+                var match = -1L;
+                for (var k = 0; k < letters; k++) {
+                    var board = boards[k];
+                    var j = i + offsets[k];
+                    var shift = mask.dCols[k];
+                    // a shift of 0 moves nothing in from the next word
+                    match &= board[j] >>> shift | board[j + 1] << 63 - shift << 1;
+                }
+                count += Long.bitCount(match);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the high bit of each zero byte of a word, exactly.
+     */
+    private static long zeroBytes(long word) {
+        return ~((word & LOW_BITS) + LOW_BITS | word | LOW_BITS);
+    }
+
+    /**
+     * A pattern of letters at offsets from its top-left corner, at most 64 columns wide.
+     * Cells of the pattern that are not letters match anything, including cells past the edge of the grid.
+     */
+    public static final class Mask {
+
+        private final int rows;
+        private final int[] dRows;
+        private final int[] dCols;
+        private final byte[] letters;
+
+        private Mask(int[] dRows, int[] dCols, byte[] letters) {
+            if (letters.length == 0) {
+                throw new IllegalArgumentException("mask has no letters");
+            }
+            // move the letters to the top-left corner
+            var minRow = Arrays.stream(dRows).min().getAsInt();
+            var minCol = Arrays.stream(dCols).min().getAsInt();
+            for (var k = 0; k < letters.length; k++) {
+                dRows[k] -= minRow;
+                dCols[k] -= minCol;
+                if (dCols[k] >= 64) {
+                    throw new IllegalArgumentException("mask is wider than 64 columns");
+                }
+            }
+            this.rows = Arrays.stream(dRows).max().getAsInt() + 1;
+            this.dRows = dRows;
+            this.dCols = dCols;
+            this.letters = letters;
+        }
+
+        /**
+         * Parses a mask from lines of text, where {@code '.'} matches anything, e.g., a cross of "MAS":
+         * <pre>
+         * Mask.of("M.S",
+         *         ".A.",
+         *         "M.S")
+         * </pre>
+         *
+         * @param lines the rows of the mask
+         * @return the mask
+         */
+        public static Mask of(String... lines) {
+            var size = 0;
+            for (var line : lines) {
+                size += line.length();
+            }
+            var dRows = new int[size];
+            var dCols = new int[size];
+            var letters = new byte[size];
+            var k = 0;
+            for (var row = 0; row < lines.length; row++) {
+                var bytes = lines[row].getBytes(StandardCharsets.US_ASCII);
+                for (var col = 0; col < bytes.length; col++) {
+                    if (bytes[col] != '.') {
+                        dRows[k] = row;
+                        dCols[k] = col;
+                        letters[k++] = bytes[col];
+                    }
+                }
+            }
+            return new Mask(Arrays.copyOf(dRows, k), Arrays.copyOf(dCols, k), Arrays.copyOf(letters, k));
+        }
+
+        /**
+         * Creates a mask of a word in a straight line.
+         *
+         * @param word the word
+         * @param dRow the step between rows, -1, 0, or 1
+         * @param dCol the step between columns, -1, 0, or 1
+         * @return the mask
+         */
+        public static Mask line(String word, int dRow, int dCol) {
+            var bytes = word.getBytes(StandardCharsets.US_ASCII);
+            var dRows = new int[bytes.length];
+            var dCols = new int[bytes.length];
+            for (var k = 0; k < bytes.length; k++) {
+                dRows[k] = k * dRow;
+                dCols[k] = k * dCol;
+            }
+            return new Mask(dRows, dCols, bytes);
+        }
+
+        /**
+         * Creates the masks of a word in a straight line in all eight directions.
+         *
+         * @param word the word
+         * @return the masks, clockwise from up
+         */
+        public static Mask[] lines(String word) {
+            int[][] steps = { { -1, 0 }, { -1, 1 }, { 0, 1 }, { 1, 1 }, { 1, 0 }, { 1, -1 }, { 0, -1 }, { -1, -1 } };
+            var masks = new Mask[steps.length];
+            for (var d = 0; d < steps.length; d++) {
+                masks[d] = line(word, steps[d][0], steps[d][1]);
+            }
+            return masks;
+        }
+
+        /**
+         * Returns the number of rows from the top letter to the bottom letter.
+         *
+         * @return the number of rows
+         */
+        public int rows() {
+            return rows;
+        }
+
+        /**
+         * Returns this mask turned a quarter clockwise.
+         *
+         * @return the turned mask
+         */
+        public Mask rotate() {
+            var k = letters.length;
+            var turnedRows = new int[k];
+            var turnedCols = new int[k];
+            for (var i = 0; i < k; i++) {
+                turnedRows[i] = dCols[i];
+                turnedCols[i] = -dRows[i];
+            }
+            return new Mask(turnedRows, turnedCols, letters.clone());
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package advent2024;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * A cursor over the bytes of a puzzle input.
+ *
+ * <p>Files are memory mapped with {@link FileChannel#map} so the input is never copied onto the heap, and numbers
+ * are parsed directly from the bytes so no {@code String} is allocated per line or per token.
+ * Parsing a line-oriented input with a cursor allocates nothing except for the parsed input itself.
+ *
+ * <p>Lines end with {@code '\n'}; a {@code '\r'} before the {@code '\n'} is not part of the line.
+ * Numbers are an optional {@code '-'} followed by a run of ASCII digits.
+ * Files are limited to 2 GB, the maximum size of a {@link java.nio.MappedByteBuffer}.
+ */
+public final class ByteCursor {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    private ByteCursor(ByteBuffer buffer) {
+        this.buffer = buffer;
+        limit = buffer.limit();
+    }
+
+    /**
+     * Memory maps a file.
+     *
+     * @param path the file
+     * @return a cursor at the start of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ByteCursor map(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ByteCursor(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Memory maps a range of a file, for files beyond the 2 GB that a cursor can hold.
+     *
+     * @param path the file
+     * @param offset the start of the range
+     * @param length the length of the range, at most the rest of the file
+     * @return a cursor at the start of the range
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ByteCursor map(Path path, long offset, int length) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ByteCursor(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+        }
+    }
+
+    public static ByteCursor of(byte[] bytes) {
+        return new ByteCursor(ByteBuffer.wrap(bytes));
+    }
+
+    public static ByteCursor of(String input) {
+        return of(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns a new cursor, at the start of the input, that shares the input with this cursor.
+     *
+     * @return the cursor
+     */
+    public ByteCursor duplicate() {
+        return new ByteCursor(buffer);
+    }
+
+    /**
+     * Returns a new cursor over a range of the input, at the start of the range, that shares the input with this
+     * cursor.
+     * Indexes in the new cursor are relative to the start of the range.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the cursor
+     */
+    public ByteCursor slice(int from, int to) {
+        return new ByteCursor(buffer.slice(from, to - from));
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public void position(int position) {
+        this.position = position;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Moves the cursor back to the start of the input.
+     */
+    public void rewind() {
+        position = 0;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public byte get(int index) {
+        return buffer.get(index);
+    }
+
+    /**
+     * Copies a range of the input into an array, without moving the cursor.
+     *
+     * @param index the start of the range
+     * @param dst the array
+     * @param offset the index in the array to copy to
+     * @param length the length of the range
+     */
+    public void get(int index, byte[] dst, int offset, int length) {
+        buffer.get(index, dst, offset, length);
+    }
+
+    public byte peek() {
+        return buffer.get(position);
+    }
+
+    public byte next() {
+        return buffer.get(position++);
+    }
+
+    public void skip(int n) {
+        position = Math.min(limit, position + n);
+    }
+
+    /**
+     * Moves the cursor to the start of the next number.
+     *
+     * @return true if there is another number in the input
+     */
+    public boolean skipToNumber() {
+        while (position < limit) {
+            var b = buffer.get(position);
+            if (isDigit(b) || b == '-' && position + 1 < limit && isDigit(buffer.get(position + 1))) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    /**
+     * Parses the next number, skipping any bytes before it.
+     *
+     * @return the number
+     * @throws IllegalStateException if there are no more numbers in the input
+     */
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    /**
+     * Parses the next number, skipping any bytes before it.
+     *
+     * @return the number
+     * @throws IllegalStateException if there are no more numbers in the input
+     */
+    public long nextLong() {
+        if (!skipToNumber()) {
+            throw new IllegalStateException("no number at or after position " + position);
+        }
+        var negative = buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        var value = 0L;
+        byte b;
+        while (position < limit && isDigit(b = buffer.get(position))) {
+            value = 10 * value + (b - '0');
+            position++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Counts the runs of digits from the cursor to the end of the line without moving the cursor.
+     *
+     * @return the number of digit runs
+     */
+    public int countNumbers() {
+        var count = 0;
+        var inNumber = false;
+        for (var i = position; i < limit; i++) {
+            var b = buffer.get(i);
+            if (b == '\n') {
+                break;
+            }
+            var digit = isDigit(b);
+            count += digit && !inNumber ? 1 : 0;
+            inNumber = digit;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the lines from the cursor to the end of the input without moving the cursor.
+     * A last line without a trailing {@code '\n'} is counted.
+     *
+     * @return the number of lines
+     */
+    public int countLines() {
+        var count = 0;
+        for (var i = position; i < limit; i++) {
+            count += buffer.get(i) == '\n' ? 1 : 0;
+        }
+        return limit > position && buffer.get(limit - 1) != '\n' ? count + 1 : count;
+    }
+
+    /**
+     * Returns the index of the end of the current line: the {@code '\r'} or {@code '\n'} that ends it or the end of
+     * the input.
+     *
+     * @return the index
+     */
+    public int lineEnd() {
+        var i = position;
+        while (i < limit && buffer.get(i) != '\n') {
+            i++;
+        }
+        return i > position && buffer.get(i - 1) == '\r' ? i - 1 : i;
+    }
+
+    /**
+     * Returns the length of the current line from the cursor, excluding the line terminator.
+     *
+     * @return the length
+     */
+    public int lineLength() {
+        return lineEnd() - position;
+    }
+
+    /**
+     * Returns whether the current line is empty from the cursor.
+     *
+     * @return true if the cursor is at the end of a line or the input
+     */
+    public boolean isLineEnd() {
+        return position == limit || buffer.get(position) == '\n' || buffer.get(position) == '\r';
+    }
+
+    /**
+     * Moves the cursor to the start of the next line.
+     *
+     * @return true if there is a next line
+     */
+    public boolean nextLine() {
+        while (position < limit && buffer.get(position++) != '\n') {
+            // skip to the end of the line
+        }
+        return position < limit;
+    }
+
+    /**
+     * Copies the current line, from the cursor, into a {@code char} array and moves to the next line.
+     *
+     * @return the line
+     */
+    public char[] nextLineChars() {
+        var chars = new char[lineLength()];
+        for (var i = 0; i < chars.length; i++) {
+            chars[i] = (char) buffer.get(position + i);
+        }
+        nextLine();
+        return chars;
+    }
+
+    /**
+     * Decodes the input, from the cursor to the end, as a UTF-8 string.
+     * The cursor does not move.
+     *
+     * @return the string
+     */
+    public String asString() {
+        var bytes = new byte[limit - position];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Updates a digest with the whole input, regardless of the cursor.
+     * The cursor does not move.
+     *
+     * @param digest the digest
+     */
+    public void digest(MessageDigest digest) {
+        digest.update(buffer.duplicate().position(0).limit(limit));
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
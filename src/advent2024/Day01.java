@@ -1,10 +1,12 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntToLongFunction;
 
 /**
  * You're given a sequence of pairs of numbers.
@@ -13,58 +15,757 @@ import java.util.HashMap;
  *
  * <p>Part 1: Find the sum of the absolute difference between each element in list 1 and list 2,
  * in sorted order.
- * Solution: Sort each list.
+ * Solution: Sort each list, with a counting sort or a radix sort.
  * Sum the absolute value of the difference between the elements at each index in the list.
  *
  * <p>Part 2: Find the sum of the product of each element in list 1 and the number of times that
  * element occurs in list 2.
- * Solution: Create a map of the elements in list 2 to the number of times those elements occur.
- * Sum the product of the elements in list 1 and the corresponding map value.
+ * Solution: Create a histogram of the number of times the elements in list 2 occur, an array if the elements are
+ * dense, otherwise a primitive map.
+ * Sum the product of the elements in list 1 and the corresponding count.
+ *
+ * <p>Sums are {@code long}s, since with millions of pairs they overflow an {@code int}.
+ *
+ * <p>With a parallelism above 1, set by {@code -Dadvent2024.parallelism=N} or the constructor, each phase is split
+ * into one chunk per thread of a fork/join pool: the input is parsed in chunks of whole lines, the lists are sorted
+ * with a parallel LSD radix sort, and part 2 merges the sorted lists in chunks of list 1 that do not split a run of
+ * equal elements.
+ * Answers are the same as the sequential ones.
+ *
+ * <p>{@link Incremental} keeps both answers up to date as elements are added to and removed from the lists, without
+ * sorting them again.
  */
-public class Day01 {
+public class Day01 implements Solver<Day01.Lists> {
 
-    public static void main(String[] args) throws IOException {
-        // parse file into two lists
-        var lines = Files.readAllLines(Path.of("resources/day01"));
-        var list1 = new int[lines.size()];
-        var list2 = new int[lines.size()];
-        for (var i = 0; i < lines.size(); i++) {
-            var nums = lines.get(i).strip().split("\\s+");
-            list1[i] = Integer.parseInt(nums[0]);
-            list2[i] = Integer.parseInt(nums[1]);
+    private final ForkJoinPool pool;
+
+    public Day01() {
+        this(Integer.getInteger("advent2024.parallelism", 1));
+    }
+
+    /**
+     * @param parallelism the number of threads, 1 to solve sequentially
+     */
+    public Day01(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
         }
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var lists = parseInput(ByteCursor.map(Path.of("resources/day01")));
 
         // Solution 1: 3508942
-        var distance = doPart1(list1, list2);
+        var distance = doPart1(lists.list1, lists.list2);
         System.out.println(distance);
 
         // Solution 2: 26593248
-        var similarity = doPart2(list1, list2);
+        var similarity = doPart2(lists.list1, lists.list2);
         System.out.println(similarity);
     }
 
-    private static int doPart1(int[] list1, int[] list2) {
-        Arrays.sort(list1);
-        Arrays.sort(list2);
+    @Override
+    public Lists parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
 
-        var dist = 0;
+    @Override
+    public Lists parse(ByteCursor input) {
+        return pool == null ? parseInput(input) : parseInput(input, pool);
+    }
+
+    @Override
+    public Object part1(Lists input) {
+        return pool == null ? doPart1(input.list1, input.list2) : doPart1(input.list1, input.list2, pool);
+    }
+
+    @Override
+    public Object part2(Lists input) {
+        return pool == null ? doPart2(input.list1, input.list2) : doPart2(input.list1, input.list2, pool);
+    }
+
+    static Lists parseInput(ByteCursor input) {
+        // parse file into two lists
+        var lines = input.countLines();
+        var list1 = new int[lines];
+        var list2 = new int[lines];
+        for (var i = 0; i < lines; i++) {
+            list1[i] = input.nextInt();
+            list2[i] = input.nextInt();
+        }
+        return new Lists(list1, list2);
+    }
+
+    static long doPart1(int[] list1, int[] list2) {
+        sort(list1);
+        sort(list2);
+
+        var dist = 0L;
         for (var i = 0; i < list1.length; i++) {
-            dist += Math.abs(list1[i] - list2[i]);
+            dist += Math.abs((long) list1[i] - list2[i]);
         }
         return dist;
     }
 
-    private static int doPart2(int[] list1, int[] list2) {
-        // map number of times elements in list2 appear
-        var map2 = new HashMap<Integer, Integer>();
-        for (var i = 0; i < list1.length; i++) {
-            map2.put(list2[i], map2.getOrDefault(list2[i], 0) + 1);
+    static long doPart2(int[] list1, int[] list2) {
+        if (list2.length == 0) {
+            return 0;
         }
+        var min = min(list2);
+        var range = (long) max(list2) - min + 1;
 
-        var similarity = 0;
-        for (var el : list1) {
-            similarity += el * map2.getOrDefault(el, 0);
+        var similarity = 0L;
+        if (isDense(range, list2.length)) {
+            // count the number of times elements in list2 appear in an array indexed by element
+            var counts = new int[(int) range];
+            for (var el : list2) {
+                counts[el - min]++;
+            }
+            for (var el : list1) {
+                var i = (long) el - min;
+                similarity += i >= 0 && i < range ? (long) el * counts[(int) i] : 0;
+            }
+        } else {
+            // map number of times elements in list2 appear
+            var counts = new LongIntMap(list2.length);
+            for (var el : list2) {
+                counts.add(el, 1);
+            }
+            for (var el : list1) {
+                similarity += (long) el * counts.get(el, 0);
+            }
         }
         return similarity;
     }
+
+    /**
+     * Sorts the list in place: a counting sort if the values are dense, otherwise an LSD radix sort, a byte at a time,
+     * of the values relative to the minimum, with a pass for each byte of the range.
+     */
+    static void sort(int[] list) {
+        if (list.length < 2) {
+            return;
+        }
+        var min = min(list);
+        var range = (long) max(list) - min + 1;
+        if (isDense(range, list.length)) {
+            var counts = new int[(int) range];
+            for (var el : list) {
+                counts[el - min]++;
+            }
+            var i = 0;
+            for (var value = 0; value < counts.length; value++) {
+                for (var count = counts[value]; count > 0; count--) {
+                    list[i++] = min + value;
+                }
+            }
+            return;
+        }
+
+        // subtracting the minimum makes every key a non-negative, unsigned, offset that fits in the bytes of the range
+        var src = list;
+        var dst = new int[list.length];
+        var counts = new int[257];
+        for (var shift = 0; shift < 32 && (range - 1) >>> shift != 0; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (var el : src) {
+                counts[((el - min) >>> shift & 0xff) + 1]++;
+            }
+            for (var b = 0; b < 256; b++) {
+                counts[b + 1] += counts[b];
+            }
+            for (var el : src) {
+                dst[counts[(el - min) >>> shift & 0xff]++] = el;
+            }
+            var tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != list) {
+            System.arraycopy(src, 0, list, 0, list.length);
+        }
+    }
+
+    /**
+     * Parses the input in a chunk of whole lines for each thread of the pool: the lines of every chunk are counted,
+     * then every chunk is parsed into the lists at the offset of its first line.
+     */
+    static Lists parseInput(ByteCursor input, ForkJoinPool pool) {
+        var tasks = pool.getParallelism();
+        var bounds = new int[tasks + 1];
+        bounds[0] = input.position();
+        bounds[tasks] = input.limit();
+        for (var t = 1; t < tasks; t++) {
+            // move each boundary after the end of the line it falls in
+            var i = Math.max(bounds[t - 1], bounds[0] + (int) ((long) (bounds[tasks] - bounds[0]) * t / tasks));
+            while (i > bounds[0] && i < bounds[tasks] && input.get(i - 1) != '\n') {
+                i++;
+            }
+            bounds[t] = i;
+        }
+
+        var offsets = fork(pool, tasks, t -> input.slice(bounds[t], bounds[t + 1]).countLines());
+        var lines = 0;
+        for (var t = 0; t < tasks; t++) {
+            var count = (int) offsets[t];
+            offsets[t] = lines;
+            lines += count;
+        }
+
+        var list1 = new int[lines];
+        var list2 = new int[lines];
+        fork(pool, tasks, t -> {
+            var chunk = input.slice(bounds[t], bounds[t + 1]);
+            var end = t + 1 < tasks ? (int) offsets[t + 1] : list1.length;
+            for (var i = (int) offsets[t]; i < end; i++) {
+                list1[i] = chunk.nextInt();
+                list2[i] = chunk.nextInt();
+            }
+            return 0;
+        });
+        return new Lists(list1, list2);
+    }
+
+    static long doPart1(int[] list1, int[] list2, ForkJoinPool pool) {
+        sort(list1, pool);
+        sort(list2, pool);
+
+        var tasks = pool.getParallelism();
+        var dists = fork(pool, tasks, t -> {
+            var dist = 0L;
+            for (var i = chunk(list1.length, tasks, t); i < chunk(list1.length, tasks, t + 1); i++) {
+                dist += Math.abs((long) list1[i] - list2[i]);
+            }
+            return dist;
+        });
+        return Arrays.stream(dists).sum();
+    }
+
+    /**
+     * Sorts copies of both lists, then merges them in a chunk of list 1 for each thread of the pool, multiplying each
+     * run of equal elements in list 1 by the matching run in list 2.
+     * Chunk boundaries are moved to the start of a run so that each run is counted by one chunk.
+     * Like the sequential {@link #doPart2(int[], int[])}, the lists are left as they are.
+     */
+    static long doPart2(int[] list1, int[] list2, ForkJoinPool pool) {
+        var sorted1 = list1.clone();
+        var sorted2 = list2.clone();
+        sort(sorted1, pool);
+        sort(sorted2, pool);
+
+        var tasks = pool.getParallelism();
+        var bounds = new int[tasks + 1];
+        bounds[tasks] = sorted1.length;
+        for (var t = 1; t < tasks; t++) {
+            var i = Math.max(bounds[t - 1], chunk(sorted1.length, tasks, t));
+            while (i > 0 && i < sorted1.length && sorted1[i] == sorted1[i - 1]) {
+                i++;
+            }
+            bounds[t] = i;
+        }
+
+        var similarities = fork(pool, tasks, t -> {
+            var similarity = 0L;
+            var i = bounds[t];
+            var j = i < bounds[t + 1] ? lowerBound(sorted2, sorted1[i]) : sorted2.length;
+            while (i < bounds[t + 1] && j < sorted2.length) {
+                var el = sorted1[i];
+                if (sorted2[j] < el) {
+                    j++;
+                    continue;
+                }
+                var run1 = 0L;
+                while (i < bounds[t + 1] && sorted1[i] == el) {
+                    run1++;
+                    i++;
+                }
+                var run2 = 0L;
+                while (j < sorted2.length && sorted2[j] == el) {
+                    run2++;
+                    j++;
+                }
+                similarity += el * run1 * run2;
+            }
+            return similarity;
+        });
+        return Arrays.stream(similarities).sum();
+    }
+
+    /**
+     * Sorts the list in place with an LSD radix sort, as {@link #sort(int[])}, in a chunk of the list for each thread
+     * of the pool.
+     * For each byte, every chunk counts its digits, the counts give each chunk its own offset for each digit, and
+     * every chunk scatters its elements from those offsets, which keeps the sort stable.
+     */
+    static void sort(int[] list, ForkJoinPool pool) {
+        if (list.length < 2) {
+            return;
+        }
+        var tasks = pool.getParallelism();
+        var unsorted = fork(pool, tasks, t -> {
+            // part 2 sorts the lists again after part 1
+            for (var i = Math.max(1, chunk(list.length, tasks, t)); i < chunk(list.length, tasks, t + 1); i++) {
+                if (list[i] < list[i - 1]) {
+                    return 1;
+                }
+            }
+            return 0;
+        });
+        if (Arrays.stream(unsorted).sum() == 0) {
+            return;
+        }
+        var mins = fork(pool, tasks, t -> {
+            var min = Integer.MAX_VALUE;
+            for (var i = chunk(list.length, tasks, t); i < chunk(list.length, tasks, t + 1); i++) {
+                min = Math.min(min, list[i]);
+            }
+            return min;
+        });
+        var maxes = fork(pool, tasks, t -> {
+            var max = Integer.MIN_VALUE;
+            for (var i = chunk(list.length, tasks, t); i < chunk(list.length, tasks, t + 1); i++) {
+                max = Math.max(max, list[i]);
+            }
+            return max;
+        });
+        var min = (int) Arrays.stream(mins).min().getAsLong();
+        var range = Arrays.stream(maxes).max().getAsLong() - min + 1;
+
+        var src = list;
+        var dst = new int[list.length];
+        var counts = new int[tasks][256];
+        for (var shift = 0; shift < 32 && (range - 1) >>> shift != 0; shift += 8) {
+            var from = src;
+            var to = dst;
+            var s = shift;
+            fork(pool, tasks, t -> {
+                var count = counts[t];
+                Arrays.fill(count, 0);
+                for (var i = chunk(from.length, tasks, t); i < chunk(from.length, tasks, t + 1); i++) {
+                    count[(from[i] - min) >>> s & 0xff]++;
+                }
+                return 0;
+            });
+            // turn the counts into offsets, by digit, then by chunk
+            var offset = 0;
+            for (var b = 0; b < 256; b++) {
+                for (var count : counts) {
+                    var n = count[b];
+                    count[b] = offset;
+                    offset += n;
+                }
+            }
+            fork(pool, tasks, t -> {
+                var offsets = counts[t];
+                for (var i = chunk(from.length, tasks, t); i < chunk(from.length, tasks, t + 1); i++) {
+                    to[offsets[(from[i] - min) >>> s & 0xff]++] = from[i];
+                }
+                return 0;
+            });
+            src = to;
+            dst = from;
+        }
+        if (src != list) {
+            var sorted = src;
+            fork(pool, tasks, t -> {
+                var start = chunk(list.length, tasks, t);
+                System.arraycopy(sorted, start, list, start, chunk(list.length, tasks, t + 1) - start);
+                return 0;
+            });
+        }
+    }
+
+    /**
+     * Runs a task for each chunk in the pool and waits for them.
+     *
+     * @return the result of each task
+     */
+    private static long[] fork(ForkJoinPool pool, int tasks, IntToLongFunction task) {
+        var futures = new ArrayList<ForkJoinTask<Long>>(tasks);
+        for (var t = 0; t < tasks; t++) {
+            var chunk = t;
+            futures.add(pool.submit(() -> task.applyAsLong(chunk)));
+        }
+        var results = new long[tasks];
+        for (var t = 0; t < tasks; t++) {
+            results[t] = futures.get(t).join();
+        }
+        return results;
+    }
+
+    /**
+     * Returns the start of a chunk of a list split into equal chunks.
+     */
+    private static int chunk(int length, int tasks, int t) {
+        return (int) ((long) length * t / tasks);
+    }
+
+    /**
+     * Returns the index of the first element of a sorted list that is not less than a value.
+     */
+    private static int lowerBound(int[] list, int value) {
+        var lo = 0;
+        var hi = list.length;
+        while (lo < hi) {
+            var mid = (lo + hi) >>> 1;
+            if (list[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns whether an array indexed by value, of the range of the values, is no bigger than the values.
+     */
+    private static boolean isDense(long range, int length) {
+        return range <= Math.max(length, 1 << 10);
+    }
+
+    private static int min(int[] list) {
+        var min = Integer.MAX_VALUE;
+        for (var el : list) {
+            min = Math.min(min, el);
+        }
+        return min;
+    }
+
+    private static int max(int[] list) {
+        var max = Integer.MIN_VALUE;
+        for (var el : list) {
+            max = Math.max(max, el);
+        }
+        return max;
+    }
+
+    /**
+     * Both lists, with the answers to both parts kept up to date as elements are added to and removed from the lists.
+     *
+     * <p>Part 2 keeps a count of each element in each list: adding {@code x} to list 1 adds {@code x} times its count
+     * in list 2 to the similarity, and the other updates are alike.
+     * A value is removed from the counts when its count reaches 0, so the counts hold only the distinct values in the
+     * lists however many values come and go.
+     *
+     * <p>Part 1 uses the identity that for sorted lists of the same length, the sum of {@code |a[i] - b[i]|} is the
+     * sum, over every integer {@code t}, of {@code |D(t)|}, where {@code D(t)} is the number of elements of list 1
+     * that are {@code <= t} minus the number of elements of list 2 that are {@code <= t}.
+     * Adding an element {@code x} to list 1 adds 1 to {@code D} from {@code x} up, and the other updates are alike, so
+     * the distance is kept in a segment tree over the {@code int} values that adds to a suffix of {@code D} and sums
+     * {@code |D|}.
+     * Nodes are only allocated down to the ranges where {@code D} is constant.
+     * A node where {@code D} has one sign takes the update whole, since every {@code |D|} in it changes by the same
+     * amount; the others are split, so an update costs {@code O(32)}, the depth of the tree, for each run of {@code D}
+     * of one sign that the updated suffix crosses.
+     * That is {@code O(32)} when {@code D} keeps one sign above the updated value, but in the worst case, where
+     * {@code D} changes sign between every two of the {@code n} distinct values above it, an update costs
+     * {@code O(32 n)}, no better than sorting the lists again.
+     */
+    public static final class Incremental {
+
+        private static final long MIN = Integer.MIN_VALUE;
+        private static final long MAX = Integer.MAX_VALUE;
+        private static final int ROOT = 1;
+
+        private final LongIntMap counts1;
+        private final LongIntMap counts2;
+        private int size1;
+        private int size2;
+        private long similarity;
+
+        // nodes, in parallel arrays, with 0 as the null node; a node without children has the same D across its range
+        private int[] min = new int[64];
+        private int[] max = new int[64];
+        private long[] sum = new long[64];
+        private int[] shift = new int[64];
+        private int[] absShift = new int[64];
+        private int[] left = new int[64];
+        private int[] right = new int[64];
+        private int nodes = ROOT + 1;
+        private int free;
+
+        /**
+         * Creates the lists from a copy of the given lists.
+         *
+         * @param list1 list 1
+         * @param list2 list 2
+         */
+        public Incremental(int[] list1, int[] list2) {
+            var sorted1 = list1.clone();
+            var sorted2 = list2.clone();
+            sort(sorted1);
+            sort(sorted2);
+            counts1 = new LongIntMap(sorted1.length);
+            counts2 = new LongIntMap(sorted2.length);
+            for (var el : sorted1) {
+                counts1.add(el, 1);
+            }
+            for (var el : sorted2) {
+                counts2.add(el, 1);
+            }
+            size1 = sorted1.length;
+            size2 = sorted2.length;
+            similarity = doPart2(sorted1, sorted2);
+
+            // merge the lists into the distinct values and the change in D at each
+            var values = new int[sorted1.length + sorted2.length];
+            var deltas = new int[values.length];
+            var n = 0;
+            for (int i = 0, j = 0; i < sorted1.length || j < sorted2.length; n++) {
+                var value = j == sorted2.length || i < sorted1.length && sorted1[i] <= sorted2[j]
+                        ? sorted1[i] : sorted2[j];
+                values[n] = value;
+                for (; i < sorted1.length && sorted1[i] == value; i++) {
+                    deltas[n]++;
+                }
+                for (; j < sorted2.length && sorted2[j] == value; j++) {
+                    deltas[n]--;
+                }
+            }
+            build(ROOT, MIN, MAX, values, deltas, 0, n, 0);
+        }
+
+        public int size1() {
+            return size1;
+        }
+
+        public int size2() {
+            return size2;
+        }
+
+        /**
+         * Returns the number of distinct values in the counts of both lists, for checking that they do not grow.
+         */
+        int distinctValues() {
+            return counts1.size() + counts2.size();
+        }
+
+        /**
+         * Returns the answer to part 1.
+         *
+         * @throws IllegalStateException if the lists are not the same length
+         */
+        public long distance() {
+            if (size1 != size2) {
+                throw new IllegalStateException("lists are different lengths: " + size1 + " and " + size2);
+            }
+            return sum[ROOT];
+        }
+
+        /**
+         * Returns the answer to part 2.
+         */
+        public long similarity() {
+            return similarity;
+        }
+
+        public void add1(int value) {
+            counts1.add(value, 1);
+            size1++;
+            similarity += (long) value * counts2.get(value, 0);
+            add(ROOT, MIN, MAX, value, 1);
+        }
+
+        public void add2(int value) {
+            counts2.add(value, 1);
+            size2++;
+            similarity += (long) value * counts1.get(value, 0);
+            add(ROOT, MIN, MAX, value, -1);
+        }
+
+        /**
+         * Removes an occurrence of a value from list 1.
+         *
+         * @param value the value
+         * @return false if the value is not in list 1
+         */
+        public boolean remove1(int value) {
+            if (counts1.get(value, 0) == 0) {
+                return false;
+            }
+            if (counts1.add(value, -1) == 0) {
+                counts1.remove(value);
+            }
+            size1--;
+            similarity -= (long) value * counts2.get(value, 0);
+            add(ROOT, MIN, MAX, value, -1);
+            return true;
+        }
+
+        /**
+         * Removes an occurrence of a value from list 2.
+         *
+         * @param value the value
+         * @return false if the value is not in list 2
+         */
+        public boolean remove2(int value) {
+            if (counts2.get(value, 0) == 0) {
+                return false;
+            }
+            if (counts2.add(value, -1) == 0) {
+                counts2.remove(value);
+            }
+            size2--;
+            similarity -= (long) value * counts1.get(value, 0);
+            add(ROOT, MIN, MAX, value, 1);
+            return true;
+        }
+
+        /**
+         * Builds the node over {@code [lo, hi]} from the values in it, given the D of the values before it.
+         */
+        private void build(int node, long lo, long hi, int[] values, int[] deltas, int from, int to, int d) {
+            if (from == to || lo == hi) {
+                for (var i = from; i < to; i++) {
+                    d += deltas[i];
+                }
+                setLeaf(node, d, hi - lo + 1);
+                return;
+            }
+            var mid = (lo + hi) >> 1;
+            var split = from;
+            var leftD = d;
+            for (; split < to && values[split] <= mid; split++) {
+                leftD += deltas[split];
+            }
+            // allocating can grow the arrays, so is done before indexing them
+            var l = allocate();
+            var r = allocate();
+            left[node] = l;
+            right[node] = r;
+            build(left[node], lo, mid, values, deltas, from, split, d);
+            build(right[node], mid + 1, hi, values, deltas, split, to, leftD);
+            pull(node);
+        }
+
+        /**
+         * Adds to D over {@code [value, MAX]} within the node over {@code [lo, hi]}.
+         */
+        private void add(int node, long lo, long hi, int value, int delta) {
+            if (value <= lo) {
+                apply(node, hi - lo + 1, delta);
+                return;
+            }
+            if (left[node] == 0) {
+                var l = allocate();
+                var r = allocate();
+                left[node] = l;
+                right[node] = r;
+                var d = min[node];
+                setLeaf(left[node], d, ((lo + hi) >> 1) - lo + 1);
+                setLeaf(right[node], d, hi - ((lo + hi) >> 1));
+            } else {
+                push(node, hi - lo + 1);
+            }
+            var mid = (lo + hi) >> 1;
+            if (value <= mid) {
+                add(left[node], lo, mid, value, delta);
+                apply(right[node], hi - mid, delta);
+            } else {
+                add(right[node], mid + 1, hi, value, delta);
+            }
+            pull(node);
+        }
+
+        /**
+         * Adds to D over the whole of a node of a width.
+         */
+        private void apply(int node, long width, int delta) {
+            // |D| grows where D is on the side of 0 the update moves away from
+            int absDelta;
+            if (delta > 0 ? min[node] >= 0 : max[node] <= 0) {
+                absDelta = 1;
+            } else if (delta > 0 ? max[node] < 0 : min[node] > 0) {
+                absDelta = -1;
+            } else {
+                var half = width / 2;
+                push(node, width);
+                apply(left[node], width - half, delta);
+                apply(right[node], half, delta);
+                pull(node);
+                return;
+            }
+            shift(node, width, delta, absDelta);
+        }
+
+        private void shift(int node, long width, int delta, int absDelta) {
+            min[node] += delta;
+            max[node] += delta;
+            sum[node] += absDelta * width;
+            if (left[node] != 0) {
+                shift[node] += delta;
+                absShift[node] += absDelta;
+            }
+        }
+
+        /**
+         * Passes the pending updates of a node of a width down to its children.
+         */
+        private void push(int node, long width) {
+            if (shift[node] != 0 || absShift[node] != 0) {
+                var half = width / 2;
+                shift(left[node], width - half, shift[node], absShift[node]);
+                shift(right[node], half, shift[node], absShift[node]);
+                shift[node] = 0;
+                absShift[node] = 0;
+            }
+        }
+
+        /**
+         * Updates a node from its children, and frees the children if D is the same across both.
+         */
+        private void pull(int node) {
+            var l = left[node];
+            var r = right[node];
+            min[node] = Math.min(min[l], min[r]);
+            max[node] = Math.max(max[l], max[r]);
+            sum[node] = sum[l] + sum[r];
+            if (min[node] == max[node] && left[l] == 0 && left[r] == 0) {
+                release(l);
+                release(r);
+                left[node] = 0;
+                right[node] = 0;
+            }
+        }
+
+        private void setLeaf(int node, int d, long width) {
+            min[node] = d;
+            max[node] = d;
+            sum[node] = Math.abs((long) d) * width;
+        }
+
+        private int allocate() {
+            int node;
+            if (free != 0) {
+                node = free;
+                free = left[node];
+            } else {
+                if (nodes == left.length) {
+                    var capacity = 2 * nodes;
+                    min = Arrays.copyOf(min, capacity);
+                    max = Arrays.copyOf(max, capacity);
+                    sum = Arrays.copyOf(sum, capacity);
+                    shift = Arrays.copyOf(shift, capacity);
+                    absShift = Arrays.copyOf(absShift, capacity);
+                    left = Arrays.copyOf(left, capacity);
+                    right = Arrays.copyOf(right, capacity);
+                }
+                node = nodes++;
+            }
+            left[node] = 0;
+            right[node] = 0;
+            shift[node] = 0;
+            absShift[node] = 0;
+            return node;
+        }
+
+        private void release(int node) {
+            left[node] = free;
+            free = node;
+        }
+    }
+
+    record Lists(int[] list1, int[] list2) {}
 }
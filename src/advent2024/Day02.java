@@ -1,8 +1,9 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * You're given a sequence of numbers.
@@ -14,78 +15,314 @@ import java.nio.file.Path;
  *
  * <p>Part 2: Find the number of sequences where when 0 or 1 elements of the sequence are removed, all numbers are
  * monotonically increasing or decreasing by 1, 2, or 3
- * Solution: In addition to Part 1's solution, iterate over each index in the sequence and create a new sequences
- * without the element at that index and then check if the new sequence is valid.
+ * Solution: For each direction, find the fewest elements that must be removed to leave a valid sequence ending at
+ * each element, keeping it, from the elements that can precede it: those at most 2 back, since removing more
+ * elements between them would be more than 1.
+ * The sequence is valid if that count for some element, plus the elements after it, is at most 1.
+ * This generalizes to at most k removals in O(n * k) time per sequence, without copying the sequence.
+ *
+ * <p>The sequences are parsed into one flat array of elements with the offset of each sequence.
+ * Part 1, and part 2's check of the whole sequence, compare lanes of adjacent elements at a time with the incubating
+ * Vector API when {@code Day02Vector} is on the class path, otherwise one element at a time:
+ * <pre>
+ * javac --add-modules jdk.incubator.vector -d out src/advent2024/*.java incubator/advent2024/*.java
+ * java --add-modules jdk.incubator.vector -cp out advent2024.Day02
+ * </pre>
+ *
+ * <p>With the argument {@code -}, {@link #countStreaming(InputStream)} counts both parts in one pass over standard
+ * input, checking each sequence as its numbers are parsed, so inputs of any size can be piped through it, e.g.,
+ * {@code cat huge | java -cp out advent2024.Day02 -}.
  */
-public class Day02 {
+public class Day02 implements Solver<Day02.Reports> {
+
+    /**
+     * The vectorized validator if it is on the class path and the Vector API is available, otherwise the scalar one.
+     */
+    static final Validator VALIDATOR = loadValidator();
 
     public static void main(String[] args) throws IOException {
-        var lines = Files.readAllLines(Path.of("resources/day02"));
-        var sequences = new int[lines.size()][];
-        for (var i = 0; i < lines.size(); i++) {
-            var nums = lines.get(i).strip().split("\\s+");
-            sequences[i] = new int[nums.length];
-            for (var j = 0; j < nums.length; j++) {
-                sequences[i][j] = Integer.parseInt(nums[j]);
-            }
+        if (args.length > 0 && args[0].equals("-")) {
+            var counts = countStreaming(System.in);
+            System.out.println(counts.part1());
+            System.out.println(counts.part2());
+            return;
         }
 
+        var reports = parseInput(ByteCursor.map(Path.of("resources/day02")));
+
         // Solution 1: 510
-        var valid = doPart1(sequences);
+        var valid = doPart1(reports);
         System.out.println(valid);
 
         // Solution 2: 553
-        valid = doPart2(sequences);
+        valid = doPart2(reports);
         System.out.println(valid);
     }
 
-    private static int doPart1(int[][] sequences) {
+    @Override
+    public Reports parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Reports parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Reports input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(Reports input) {
+        return doPart2(input);
+    }
+
+    static Reports parseInput(ByteCursor input) {
+        var offsets = new int[input.countLines() + 1];
+        var levels = new int[8 * offsets.length];
+        var n = 0;
+        for (var i = 1; i < offsets.length; i++) {
+            var count = input.countNumbers();
+            if (n + count > levels.length) {
+                levels = Arrays.copyOf(levels, Math.max(2 * levels.length, n + count));
+            }
+            for (var j = 0; j < count; j++) {
+                levels[n++] = input.nextInt();
+            }
+            offsets[i] = n;
+            input.nextLine();
+        }
+        return new Reports(levels, offsets);
+    }
+
+    static int doPart1(Reports reports) {
+        return doPart1(reports, VALIDATOR);
+    }
+
+    static int doPart1(Reports reports, Validator validator) {
+        var levels = reports.levels;
+        var offsets = reports.offsets;
         var sequencesValid = 0;
-        for (var sequence : sequences) {
-            if (checkValid(sequence)) {
+        for (var i = 0; i < reports.size(); i++) {
+            if (validator.checkValid(levels, offsets[i], offsets[i + 1])) {
                 sequencesValid++;
             }
         }
         return sequencesValid;
     }
 
-    private static int doPart2(int[][] sequences) {
+    static int doPart2(Reports reports) {
+        return countValid(reports, 1);
+    }
+
+    /**
+     * Returns the number of sequences that are valid after removing at most some number of elements.
+     *
+     * @param reports the sequences
+     * @param removals the maximum number of elements to remove from each sequence
+     * @return the number of valid sequences
+     */
+    static int countValid(Reports reports, int removals) {
+        var levels = reports.levels;
+        var offsets = reports.offsets;
+        var removed = new int[removals + 2];
         var sequencesValid = 0;
-        for (var sequence : sequences) {
-            if (checkValid(sequence) || checkValidSkip(sequence)) {
+        for (var i = 0; i < reports.size(); i++) {
+            var from = offsets[i];
+            var to = offsets[i + 1];
+            if (VALIDATOR.checkValid(levels, from, to)
+                    || checkValid(levels, from, to, removals, 1, removed)
+                    || checkValid(levels, from, to, removals, -1, removed)) {
                 sequencesValid++;
             }
         }
         return sequencesValid;
     }
 
-    private static boolean checkValid(int[] sequence) {
+    /**
+     * Returns whether a sequence increases, or decreases, by 1, 2, or 3 at each step, one element at a time.
+     */
+    static boolean checkValid(int[] levels, int from, int to) {
         var increasing = 0;
         var decreasing = 0;
-        for (var i = 0; i < sequence.length - 1; i++) {
-            var diff = sequence[i + 1] - sequence[i];
+        for (var i = from; i < to - 1; i++) {
+            var diff = levels[i + 1] - levels[i];
             increasing += diff >= 1 && diff <= 3 ? 1 : 0;
             decreasing += diff >= -3 && diff <= -1 ? 1 : 0;
         }
-        return increasing == sequence.length - 1 || decreasing == sequence.length - 1;
-    }
-
-    private static boolean checkValidSkip(int[] sequence) {
-        // this exhaustively iterates over indexes to skip, it's inefficient, but simple to understand
-        for (var skip = 0; skip < sequence.length; skip++) {
-            // copy into a new array
-            var skippedSequence = new int[sequence.length - 1];
-            var j = 0;
-            for (var i = 0; i < sequence.length; i++) {
-                if (skip != i) {
-                    skippedSequence[j++] = sequence[i];
+        return increasing == to - from - 1 || decreasing == to - from - 1;
+    }
+
+    /**
+     * Returns whether removing at most some number of elements leaves a sequence that increases, or decreases, by 1,
+     * 2, or 3 at each step.
+     *
+     * @param removed a buffer of {@code removals + 2} elements, holding the fewest removals that leave a valid
+     *                sequence ending at each of the last elements
+     */
+    private static boolean checkValid(int[] levels, int from, int to, int removals, int direction, int[] removed) {
+        var length = to - from;
+        var lastPossible = -1;
+        for (var i = 0; i < length; i++) {
+            if (lastPossible < i - removals - 1) {
+                // no element that can precede this one, or any later one, is possible
+                return false;
+            }
+            var fewest = i;
+            for (var j = Math.max(0, i - removals - 1); j < i; j++) {
+                var diff = (levels[from + i] - levels[from + j]) * direction;
+                if (diff >= 1 && diff <= 3) {
+                    fewest = Math.min(fewest, removed[j % removed.length] + i - j - 1);
                 }
             }
-
-            if (checkValid(skippedSequence)) {
+            if (fewest + length - 1 - i <= removals) {
                 return true;
             }
+            removed[i % removed.length] = fewest;
+            if (fewest <= removals) {
+                lastPossible = i;
+            }
         }
         return false;
     }
+
+    /**
+     * Counts the valid sequences for both parts in one pass over the input, without storing the sequences.
+     * Part 2 runs the dynamic programming of {@link #countValid(Reports, int)} as each element is parsed, keeping
+     * only the last 2 elements, and the fewest removals for each, in each direction.
+     *
+     * @param in the input, read to the end but not closed
+     * @return the number of valid sequences for each part
+     * @throws IOException if the input cannot be read
+     */
+    static Counts countStreaming(InputStream in) throws IOException {
+        var buffer = new byte[1 << 16];
+        var increasing = new StreamingCheck(1);
+        var decreasing = new StreamingCheck(-1);
+        var part1 = 0L;
+        var part2 = 0L;
+        var value = 0;
+        var negative = false;
+        var inNumber = false;
+        for (var n = in.read(buffer); ; n = in.read(buffer)) {
+            // a last line without a '\n' ends at the end of the input
+            var end = n < 0;
+            for (var i = 0; i < n || end; i++) {
+                var b = end ? (byte) '\n' : buffer[i];
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + b - '0';
+                    inNumber = true;
+                    continue;
+                }
+                if (inNumber) {
+                    increasing.next(negative ? -value : value);
+                    decreasing.next(negative ? -value : value);
+                }
+                negative = b == '-';
+                value = 0;
+                inNumber = false;
+                if (b == '\n') {
+                    // an empty line, like the one after a trailing '\n', is not valid
+                    part1 += increasing.valid(0) || decreasing.valid(0) ? 1 : 0;
+                    part2 += increasing.valid(1) || decreasing.valid(1) ? 1 : 0;
+                    increasing.reset();
+                    decreasing.reset();
+                    if (end) {
+                        return new Counts(part1, part2);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Validator loadValidator() {
+        try {
+            return (Validator) Class.forName("advent2024.Day02Vector").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Day02::checkValid;
+        }
+    }
+
+    /**
+     * Checks whether a sequence increases, or decreases, by 1, 2, or 3 at each step.
+     */
+    @FunctionalInterface
+    interface Validator {
+
+        /**
+         * @param levels the elements of all sequences
+         * @param from the index of the first element of the sequence
+         * @param to the index after the last element of the sequence
+         * @return whether the sequence is valid
+         */
+        boolean checkValid(int[] levels, int from, int to);
+    }
+
+    /**
+     * Checks a sequence in one direction as its elements arrive, allowing at most 1 removal.
+     */
+    private static final class StreamingCheck {
+
+        private final int direction;
+        private int length;
+        private int last;
+        private int beforeLast;
+        // the fewest removals that leave a valid sequence ending at, and keeping, the last and the one before it
+        private int fewestLast;
+        private int fewestBeforeLast;
+
+        StreamingCheck(int direction) {
+            this.direction = direction;
+        }
+
+        void next(int level) {
+            var fewest = length;
+            if (length >= 1 && isStep(level - last)) {
+                fewest = Math.min(fewest, fewestLast);
+            }
+            if (length >= 2 && isStep(level - beforeLast)) {
+                fewest = Math.min(fewest, fewestBeforeLast + 1);
+            }
+            beforeLast = last;
+            fewestBeforeLast = fewestLast;
+            last = level;
+            // counts above 2 are all too many
+            fewestLast = Math.min(fewest, 2);
+            length++;
+        }
+
+        /**
+         * Returns whether the sequence so far is valid after at most 0 or 1 removals.
+         */
+        boolean valid(int removals) {
+            return length > 0 && (fewestLast <= removals || length >= 2 && fewestBeforeLast + 1 <= removals);
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        private boolean isStep(int diff) {
+            diff *= direction;
+            return diff >= 1 && diff <= 3;
+        }
+    }
+
+    /**
+     * The number of valid sequences for each part.
+     */
+    record Counts(long part1, long part2) {}
+
+    /**
+     * The sequences, with the elements of sequence {@code i} at {@code levels[offsets[i]]} to
+     * {@code levels[offsets[i + 1] - 1]}.
+     */
+    record Reports(int[] levels, int[] offsets) {
+
+        int size() {
+            return offsets.length - 1;
+        }
+    }
 }
@@ -1,9 +1,16 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 /**
  * You're given a string to parse that contains mul(X,Y), do(), and don't() instructions.
@@ -14,16 +21,71 @@ import java.nio.file.Path;
  * instruction starts processing of mul(X,Y) instructions.
  * An initial do() instruction is implied.
  *
- * <p>Solution: A text parser that reads the string character by character.
- * Inline hashes are used for "mul(", "do()", and "don't()" to prevent repetitive string comparisons and multiple
- * passes over the same characters.
+ * <p>Solution: The instructions are declared as an {@link InstructionSet}, their names, number of arguments, and
+ * digits in each argument, which compiles them into a DFA with a transition table indexed by byte.
+ * The scanner reads the input once, a table lookup per byte, without backtracking.
  *
  * <p>Alternative: You could do a Regex here because of the simplicity of the instructions, but this isn't very
  * scalable as you get to more instructions or more complex instructions (e.g., nesting calls).
+ *
+ * <p>The solver scans the bytes of the input into a {@link Summary}.
+ * Summaries of consecutive chunks combine, so with a parallelism above 1, set by {@code -Dadvent2024.parallelism=N}
+ * or the constructor, the input is split into a chunk for each thread of a fork/join pool.
+ * Each chunk counts the instructions that end in it, starting the scan before the chunk by the length of the
+ * longest instruction, so instructions across chunk boundaries are counted once.
+ * With a file argument, {@link #scan(Path, ForkJoinPool)} maps each chunk of the file separately, so the file can be
+ * larger than 2 GB.
+ * With the argument {@code -}, {@link #scan(ReadableByteChannel, Consumer)} scans standard input as it arrives, through
+ * a fixed-size buffer, printing the running sums to standard error after each read.
  */
-public class Day03 {
+public class Day03 implements Solver<ByteCursor> {
+
+    static final int MUL = 0;
+    static final int DO = 1;
+    static final int DONT = 2;
+
+    static final InstructionSet INSTRUCTIONS = InstructionSet.compile(
+            new InstructionSet.Instruction("mul", 2, 3),
+            new InstructionSet.Instruction("do", 0, 0),
+            new InstructionSet.Instruction("don't", 0, 0));
+
+    /**
+     * The largest chunk of a file mapped at once.
+     */
+    private static final int MAX_CHUNK = 1 << 30;
+
+    /**
+     * The size of the buffer a channel is read through.
+     */
+    private static final int STREAM_BUFFER = 1 << 16;
+
+    private final ForkJoinPool pool;
+
+    public Day03() {
+        this(Integer.getInteger("advent2024.parallelism", 1));
+    }
+
+    /**
+     * @param parallelism the number of threads, 1 to scan sequentially
+     */
+    public Day03(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
 
     public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            var summary = args[0].equals("-")
+                    ? scan(Channels.newChannel(System.in),
+                            running -> System.err.println(running.all() + " " + running.enabled()))
+                    : scan(Path.of(args[0]), ForkJoinPool.commonPool());
+            System.out.println(summary.all());
+            System.out.println(summary.enabled());
+            return;
+        }
+
         var input = Files.readString(Path.of("resources/day03"));
 
         // Solution 1: 188741603
@@ -35,129 +97,188 @@ public class Day03 {
         System.out.println(sumProduct);
     }
 
-    private static long parse(String input, boolean enableCheck) {
-        var sumProduct = 0L;
-        var state = new ParseState(input);
-        var enabled = true;
-
-        while (!state.isEos()) {
-            var c = state.read();
-
-            if (enableCheck && state.hash4 == ParseState.DO_HASH) {
-                enabled = true;
-                state.reset();
-            } else if (enableCheck && state.hash7 == ParseState.DONT_HASH) {
-                enabled = false;
-            } else if (enabled) {
-                if (state.hash4 == ParseState.MUL_HASH) {
-                    state.readingFirstNum = true;
-                } else if (state.readingFirstNum) {
-                    if (c >= '0' && c <= '9') {
-                        state.num1 = 10 * state.num1 + (c - '0');
-                        state.numCount1++;
-                    } else if (c == ',') {
-                        state.readingFirstNum = false;
-                        state.readingSecondNum = true;
-                    } else {
-                        // read an invalid char, go back 1
-                        state.backtrack();
-                    }
-                } else if (state.readingSecondNum) {
-                    if (c >= '0' && c <= '9') {
-                        state.num2 = 10 * state.num2 + (c - '0');
-                        state.numCount2++;
-                    } else if (c == ')') {
-                        // only a valid number if both numbers are 1 to 3 digits
-                        if (state.numCount1 >= 1 && state.numCount1 <= 3 && state.numCount2 >= 1 && state.numCount2 <= 3) {
-                            sumProduct += (long) state.num1 * state.num2;
-                        }
-                        state.reset();
-                    } else {
-                        // read an invalid char, go back 1
-                        state.backtrack();
-                    }
-                }
-            }
-        }
-        return sumProduct;
+    @Override
+    public ByteCursor parse(String input) {
+        return ByteCursor.of(input);
     }
 
-    private static class ParseState {
+    @Override
+    public ByteCursor parse(ByteCursor input) {
+        return input;
+    }
 
-        static final int MUL_HASH;
-        static final int DONT_HASH;
-        static final int DO_HASH;
+    @Override
+    public Object part1(ByteCursor input) {
+        return scan(input).all();
+    }
 
-        static {
-            MUL_HASH = buildHash("mul(");
-            DONT_HASH = buildHash("don't()");
-            DO_HASH = buildHash("do()");
-        }
+    @Override
+    public Object part2(ByteCursor input) {
+        return scan(input).enabled();
+    }
 
-        private static int buildHash(String string) {
-            var bytes = string.getBytes(StandardCharsets.UTF_8);
-            var hash = 0;
-            for (var b : bytes) {
-                hash = 31 * hash + b;
-            }
-            return hash;
-        }
+    private Summary scan(ByteCursor input) {
+        return pool == null ? scan(input, input.position(), input.limit()) : scan(input, pool);
+    }
 
-        private final String input;
-        boolean readingFirstNum;
-        boolean readingSecondNum;
-        int num1;
-        int num2;
-        int numCount1;
-        int numCount2;
-        int hash4;
-        int hash7;
-        int lastHash4;
-        int lastHash7;
-        int index;
-
-        ParseState(String input) {
-            this.input = input;
+    static long parse(String input, boolean enableCheck) {
+        // the cursor holds the UTF-8 bytes, which outnumber the chars if the input has any non-ASCII characters
+        var cursor = ByteCursor.of(input);
+        var summary = scan(cursor, 0, cursor.limit());
+        return enableCheck ? summary.enabled() : summary.all();
+    }
+
+    /**
+     * Scans the input in a chunk for each thread of the pool.
+     */
+    static Summary scan(ByteCursor input, ForkJoinPool pool) {
+        var tasks = pool.getParallelism();
+        var from = input.position();
+        var length = input.limit() - from;
+        var chunks = new ArrayList<Callable<Summary>>(tasks);
+        for (var t = 0; t < tasks; t++) {
+            var start = from + (int) ((long) length * t / tasks);
+            var end = from + (int) ((long) length * (t + 1) / tasks);
+            chunks.add(() -> scan(input, start, end));
         }
+        return combine(pool, chunks);
+    }
 
-        boolean isEos() {
-            return index == input.length();
+    /**
+     * Scans a file in a chunk for each thread of the pool, or in chunks of 1 GB if there are more, each mapped
+     * separately with the bytes before it that an instruction ending in it can start in.
+     */
+    static Summary scan(Path path, ForkJoinPool pool) throws IOException {
+        var size = Files.size(path);
+        var tasks = (int) Math.max(pool.getParallelism(), (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        var chunks = new ArrayList<Callable<Summary>>(tasks);
+        for (var t = 0; t < tasks; t++) {
+            var start = size * t / tasks;
+            var end = size * (t + 1) / tasks;
+            chunks.add(() -> {
+                var mapped = Math.max(0, start - INSTRUCTIONS.maxLength() + 1);
+                var chunk = ByteCursor.map(path, mapped, (int) (end - mapped));
+                return scan(chunk, (int) (start - mapped), (int) (end - mapped));
+            });
         }
+        return combine(pool, chunks);
+    }
 
-        void reset() {
-            readingFirstNum = false;
-            readingSecondNum = false;
-            num1 = 0;
-            num2 = 0;
-            numCount1 = 0;
-            numCount2 = 0;
+    /**
+     * Scans a channel to the end through a fixed-size direct buffer.
+     *
+     * @param channel the channel, read to the end but not closed
+     * @param running receives the summary of the input so far after each read
+     * @return the summary of the input
+     * @throws IOException if the channel cannot be read
+     */
+    static Summary scan(ReadableByteChannel channel, Consumer<Summary> running) throws IOException {
+        var summary = new SummaryBuilder();
+        INSTRUCTIONS.scan(channel, ByteBuffer.allocateDirect(STREAM_BUFFER), summary,
+                () -> running.accept(summary.build()));
+        return summary.build();
+    }
+
+    private static Summary combine(ForkJoinPool pool, ArrayList<Callable<Summary>> chunks) {
+        var futures = new ArrayList<ForkJoinTask<Summary>>(chunks.size());
+        for (var chunk : chunks) {
+            futures.add(pool.submit(chunk));
+        }
+        var summary = Summary.EMPTY;
+        for (var future : futures) {
+            summary = summary.then(future.join());
         }
+        return summary;
+    }
+
+    /**
+     * Scans the instructions that end in a range of the input.
+     *
+     * @param input the input
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the summary of the range
+     */
+    static Summary scan(ByteCursor input, int from, int to) {
+        var summary = new SummaryBuilder();
+        INSTRUCTIONS.scan(input, from, to, summary);
+        return summary.build();
+    }
 
-        void backtrack() {
-            if (index != input.length() - 1) {
-                index--;
-                hash4 = lastHash4;
-                hash7 = lastHash7;
-                reset();
+    /**
+     * Sums the instructions of a range as they are scanned.
+     */
+    private static final class SummaryBuilder implements InstructionSet.Handler {
+
+        private long all;
+        // the sums and states if the range starts enabled and if it starts disabled
+        private long ifEnabled;
+        private long ifDisabled;
+        private boolean enabled = true;
+        private boolean disabled;
+        private int last = Summary.NONE;
+
+        @Override
+        public void instruction(int instruction, int[] arguments) {
+            switch (instruction) {
+                case MUL -> {
+                    var product = (long) arguments[0] * arguments[1];
+                    all += product;
+                    ifEnabled += enabled ? product : 0;
+                    ifDisabled += disabled ? product : 0;
+                }
+                case DO -> {
+                    enabled = true;
+                    disabled = true;
+                    last = Summary.ENABLE;
+                }
+                default -> {
+                    enabled = false;
+                    disabled = false;
+                    last = Summary.DISABLE;
+                }
             }
         }
 
-        char read() {
-            lastHash4 = hash4;
-            if (index - 4 >= 0) {
-                hash4 -= 31 * 31 * 31 * input.charAt(index - 4);
-            }
+        Summary build() {
+            return new Summary(all, ifEnabled, ifDisabled, last);
+        }
+    }
 
-            lastHash7 = hash7;
-            if (index - 7 >= 0) {
-                hash7 -= 31 * 31 * 31 * 31 * 31 * 31 * input.charAt(index - 7);
-            }
+    /**
+     * The mul(X,Y) instructions of a range of the input: the sum of all of them, the sums of the enabled ones if the
+     * range starts enabled and if it starts disabled, and the last of do() or don't() in the range, which sets the
+     * state at its end.
+     * Summaries of consecutive ranges combine with {@link #then(Summary)}, which is associative.
+     */
+    record Summary(long all, long ifEnabled, long ifDisabled, int last) {
 
-            var c = input.charAt(index++);
-            hash4 = 31 * hash4 + c;
-            hash7 = 31 * hash7 + c;
+        static final int NONE = 0;
+        static final int ENABLE = 1;
+        static final int DISABLE = 2;
+
+        static final Summary EMPTY = new Summary(0, 0, 0, NONE);
+
+        /**
+         * Returns the sum of the enabled instructions, starting enabled, as at the start of the input.
+         */
+        long enabled() {
+            return ifEnabled;
+        }
+
+        /**
+         * Returns the summary of this range followed by the next one.
+         */
+        Summary then(Summary next) {
+            return new Summary(
+                    all + next.all,
+                    ifEnabled + (endsEnabled(true) ? next.ifEnabled : next.ifDisabled),
+                    ifDisabled + (endsEnabled(false) ? next.ifEnabled : next.ifDisabled),
+                    next.last != NONE ? next.last : last);
+        }
 
-            return c;
+        private boolean endsEnabled(boolean startsEnabled) {
+            return last == NONE ? startsEnabled : last == ENABLE;
         }
     }
 }
@@ -1,15 +1,18 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * You're given a grid of letters: 'X', 'M', 'A', and 'S'.
  *
  * <p>Part 1: Find a sequence of 4 cells that spell "XMAS".
  * The sequence must be a straight line, including diags and backwards, originating from the 'X'.
- * Solution: Linear search for each 'X' and then checking all eight possible straight lines from each 'X' coordinate.
+ * Solution: A {@link WordSearch}, an Aho-Corasick automaton of "XMAS" and "SAMX", streams every row, column, and
+ * diagonal through it once, so the same search finds a dictionary of any number of words.
  *
  * <p>Part 2: Find two diag lines that spell "MAS", intersecting on the 'A'.
  * "MAS" can be spelled forward and backwards.
@@ -17,16 +20,36 @@ import java.nio.file.Path;
  *
  * <p>Alternative: (From Aaron) You could do a convolution mask for Part 2.
  * Java doesn't have matrix multiplication built-in.
+ * A {@link BitBoard} is that convolution, with AND for multiply, matching any small 2-D mask of letters 64 cells at a
+ * time, but for the one cross, packing the board costs more than the linear search saves.
+ *
+ * <p>With a parallelism above 1, set by {@code -Dadvent2024.parallelism=N} or the constructor, both parts split the
+ * grid into a band of rows for each thread of a fork/join pool.
+ * A band counts the words that end in it, reading down the grid, starting the search above the band by the length of
+ * the word less one, and the crosses centred on an 'A' in it, so matches across band boundaries are counted once.
  */
-public class Day04 {
+public class Day04 implements Solver<Grid> {
 
-    public static void main(String[] args) throws IOException {
-        // parse file into a 2-D grid
-        var input = Files.readAllLines(Path.of("resources/day04"));
-        var grid = new char[input.size()][];
-        for (var i = 0; i < grid.length; i++) {
-            grid[i] = input.get(i).toCharArray();
+    private static final WordSearch XMAS = WordSearch.of("XMAS");
+
+    private final ForkJoinPool pool;
+
+    public Day04() {
+        this(Integer.getInteger("advent2024.parallelism", 1));
+    }
+
+    /**
+     * @param parallelism the number of threads, 1 to search sequentially
+     */
+    public Day04(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
         }
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var grid = parseInput(ByteCursor.map(Path.of("resources/day04")));
 
         // Solution 1: 2458
         int count = doPart1(grid);
@@ -37,57 +60,61 @@ public class Day04 {
         System.out.println(count);
     }
 
-    private static int doPart1(char[][] grid) {
-        var count = 0;
-        // iterate through each grid cell looking for an 'X'
-        for (var row = 0; row < grid.length; row++) {
-            for (var col = 0; col < grid[row].length; col++) {
-                if (grid[row][col] == 'X') {
-                    // search the eight squares surrounding the 'X' for an 'M'
-                    for (var i = -1; i <= 1; i++) {
-                        for (var j = -1; j <= 1; j++) {
-                            var newRow = row + i;
-                            var newCol = col + j;
-                            if (isValidCoords(grid, newRow, newCol) && grid[newRow][newCol] == 'M') {
-                                // continue linear search for 'A' and then 'S'
-                                count += linearSearch(grid, newRow, newCol, i, j);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return count;
+    @Override
+    public Grid parse(String input) {
+        return parseInput(ByteCursor.of(input));
     }
 
-    private static int linearSearch(char[][] grid, int row, int col, int rowDelta, int colDelta) {
-        var c = grid[row][col];
-        if (c == 'M' || c == 'A') {
-            // find the next letter in the sequence, going in the same direction
-            var newRow = row + rowDelta;
-            var newCol = col + colDelta;
-            var next = c == 'M' ? 'A' : 'S';
-            if (isValidCoords(grid, newRow, newCol) && grid[newRow][newCol] == next) {
-                return linearSearch(grid, newRow, newCol, rowDelta, colDelta);
-            }
-        } else if (c == 'S') {
-            // 'S' is the last letter, we have found all letters in the sequence
-            return 1;
-        }
-        return 0;
+    @Override
+    public Grid parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Grid input) {
+        return pool == null ? doPart1(input) : doPart1(input, pool);
     }
 
-    private static int doPart2(char[][] grid) {
+    @Override
+    public Object part2(Grid input) {
+        return pool == null ? doPart2(input) : doPart2(input, pool);
+    }
+
+    static Grid parseInput(ByteCursor input) {
+        return Grid.parse(input);
+    }
+
+    static int doPart1(Grid grid) {
+        return (int) XMAS.count(grid);
+    }
+
+    static int doPart1(Grid grid, ForkJoinPool pool) {
+        return (int) bands(grid, pool, (from, to) -> XMAS.count(grid, from, to));
+    }
+
+    static int doPart2(Grid grid) {
+        return countCrosses(grid, 0, grid.rows());
+    }
+
+    static int doPart2(Grid grid, ForkJoinPool pool) {
+        return (int) bands(grid, pool, (from, to) -> countCrosses(grid, from, to));
+    }
+
+    /**
+     * Counts the crosses centred on an 'A' in a band of rows.
+     */
+    private static int countCrosses(Grid grid, int fromRow, int toRow) {
         var count = 0;
+        var diagonals = grid.diagonals();
         // iterate through each grid cell looking for an 'A'
-        for (var row = 0; row < grid.length; row++) {
-            for (var col = 0; col < grid[row].length; col++) {
-                if (grid[row][col] == 'A') {
-                    // retrieve the values diag from 'A'
-                    var upLeft = isValidCoords(grid, row - 1, col - 1) ? grid[row - 1][col - 1] : 0;
-                    var upRight = isValidCoords(grid, row - 1, col + 1) ? grid[row - 1][col + 1] : 0;
-                    var downLeft = isValidCoords(grid, row + 1, col - 1) ? grid[row + 1][col - 1] : 0;
-                    var downRight = isValidCoords(grid, row + 1, col + 1) ? grid[row + 1][col + 1] : 0;
+        for (var row = fromRow; row < toRow; row++) {
+            for (var cell = grid.index(row, 0); cell < grid.index(row, grid.cols()); cell++) {
+                if (grid.get(cell) == 'A') {
+                    // retrieve the values diag from 'A', the border is 0
+                    var upLeft = grid.get(cell + diagonals[0]);
+                    var upRight = grid.get(cell + diagonals[1]);
+                    var downRight = grid.get(cell + diagonals[2]);
+                    var downLeft = grid.get(cell + diagonals[3]);
                     if (upLeft + downRight == 'M' + 'S' && downLeft + upRight == 'M' + 'S') {
                         count++;
                     }
@@ -97,7 +124,27 @@ public class Day04 {
         return count;
     }
 
-    private static boolean isValidCoords(char[][] grid, int newRow, int newCol) {
-        return newRow >= 0 && newRow < grid.length && newCol >= 0 && newCol < grid[newRow].length;
+    /**
+     * Counts the matches in a band of rows for each thread of the pool, and adds them up.
+     */
+    private static long bands(Grid grid, ForkJoinPool pool, Band band) {
+        var tasks = pool.getParallelism();
+        var rows = grid.rows();
+        var futures = new ArrayList<ForkJoinTask<Long>>(tasks);
+        for (var t = 0; t < tasks; t++) {
+            var from = (int) ((long) rows * t / tasks);
+            var to = (int) ((long) rows * (t + 1) / tasks);
+            futures.add(pool.submit(() -> band.count(from, to)));
+        }
+        var count = 0L;
+        for (var future : futures) {
+            count += future.join();
+        }
+        return count;
+    }
+
+    private interface Band {
+
+        long count(int fromRow, int toRow);
     }
 }
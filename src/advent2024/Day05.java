@@ -1,14 +1,8 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 /**
  * You're given:
@@ -19,83 +13,301 @@ import java.util.Set;
  * </ol>
  *
  * <p>Part 1: Find all valid lists of numbers.
- * Solution: Create a map from the order dependency rules of each number to a list of its dependencies.
- * Iterate through each list of numbers.
- * For each number, check that for each dependency in the list that it has been seen in earlier in the list of numbers.
+ * Solution: Page numbers are small, so the rules are a dense bit matrix, {@link Rules}, with a row for each page of
+ * the pages that must come after it.
+ * Iterate through each list of numbers, keeping a bitset of the pages seen so far.
+ * A list is invalid if the row of a page and the pages seen before it share a page, an AND of a {@code long} for
+ * every 64 page numbers between the lowest and highest page seen.
+ * The bitset is cleared page by page after each list, so checking a list allocates nothing.
  *
  * <p>Part 2: Correct the invalid lists of numbers.
- * Solution: For each invalid list of numbers you can sort the invalid list using the order dependency rules.
- *
- * <p>Alternative: (From Aaron) You could find the part 2 middle number by finding the page with exactly length / 2 + 1
- * dependencies instead of sorting the entire invalid page list.
+ * Solution: (From Aaron) Only the middle number is needed, so rather than sorting each invalid list, find the page
+ * with exactly length / 2 pages of the list before it.
+ * The pages of the list that must come after a page are its row ANDed with a bitset of the list, so counting them is
+ * a bit count per {@code long}.
+ * If the rules order every pair of pages in the list, the counts are 0 to length - 1, and the page with
+ * length - 1 - length / 2 after it is the middle.
+ * Otherwise the list falls back to a topological sort by the rules, and the middle of that order.
  */
-public class Day05 {
+public class Day05 implements Solver<Day05.Manual> {
+
+    /**
+     * The largest page number, so the rule matrix is at most 2 MB.
+     */
+    static final int MAX_PAGE = 4095;
 
     public static void main(String[] args) throws IOException {
-        // read the ordering rules into a list of pairs
-        // read the page lists in a list of lists of numbers
-        var input = Files.readAllLines(Path.of("resources/day05"));
-        var orderingRules = new ArrayList<int[]>();
-        var pages = new ArrayList<List<Integer>>();
-        for (var line : input) {
-            if (line.contains("|")) {
-                orderingRules.add(Arrays.stream(line.split("\\|")).mapToInt(Integer::parseInt).toArray());
-            } else if (line.contains(",")) {
-                pages.add(Arrays.stream(line.split(",")).map(Integer::parseInt).toList());
-            }
-        }
+        var manual = parseInput(ByteCursor.map(Path.of("resources/day05")));
 
         // Solution 1: 5588
-        int count = doPart1(orderingRules, pages);
+        int count = doPart1(manual.rules, manual.updates);
         System.out.println(count);
 
         // Solution 2: 5331
-        count = doPart2(orderingRules, pages);
+        count = doPart2(manual.rules, manual.updates);
         System.out.println(count);
     }
 
-    private static int doPart1(List<int[]> orderingRules, List<List<Integer>> pageLists) {
-        var pageDependencies = buildOrderRuleDependencies(orderingRules);
+    @Override
+    public Manual parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Manual parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Manual input) {
+        return doPart1(input.rules, input.updates);
+    }
+
+    @Override
+    public Object part2(Manual input) {
+        return doPart2(input.rules, input.updates);
+    }
+
+    static Manual parseInput(ByteCursor input) {
+        // read the ordering rules into pairs, up to the blank line
+        var pairs = new int[256];
+        var n = 0;
+        var maxPage = 0;
+        while (!input.isLineEnd()) {
+            if (n + 2 > pairs.length) {
+                pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+            }
+            pairs[n] = page(input.nextInt());
+            pairs[n + 1] = page(input.nextInt());
+            maxPage = Math.max(maxPage, Math.max(pairs[n], pairs[n + 1]));
+            n += 2;
+            input.nextLine();
+        }
+        input.nextLine();
+
+        // read the page lists into one array, with the offset of each list
+        var offsets = new int[input.countLines() + 1];
+        var pages = new int[8 * offsets.length];
+        var size = 0;
+        var lists = 0;
+        while (input.hasRemaining() && !input.isLineEnd()) {
+            var count = input.countNumbers();
+            if (size + count > pages.length) {
+                pages = Arrays.copyOf(pages, Math.max(2 * pages.length, size + count));
+            }
+            for (var j = 0; j < count; j++) {
+                pages[size] = page(input.nextInt());
+                maxPage = Math.max(maxPage, pages[size++]);
+            }
+            offsets[++lists] = size;
+            input.nextLine();
+        }
+
+        var rules = new Rules(maxPage + 1);
+        for (var i = 0; i < n; i += 2) {
+            rules.add(pairs[i], pairs[i + 1]);
+        }
+        return new Manual(rules, new Updates(pages, Arrays.copyOf(offsets, lists + 1)));
+    }
+
+    private static int page(int page) {
+        if (page < 0 || page > MAX_PAGE) {
+            throw new IllegalArgumentException("page number out of range 0 to " + MAX_PAGE + ": " + page);
+        }
+        return page;
+    }
+
+    static int doPart1(Rules rules, Updates updates) {
+        var pages = updates.pages;
+        var offsets = updates.offsets;
+        var seen = rules.newPageSet();
         var sum = 0;
-        for (var pageList : pageLists) {
-            if (isValidOrder(pageDependencies, pageList)) {
-                sum += pageList.get(pageList.size() / 2); // the middle page
+        for (var i = 0; i < updates.size(); i++) {
+            if (rules.isValidOrder(pages, offsets[i], offsets[i + 1], seen)) {
+                sum += pages[(offsets[i] + offsets[i + 1]) >>> 1]; // the middle page
             }
         }
         return sum;
     }
 
-    private static int doPart2(List<int[]> orderingRules, List<List<Integer>> pageLists) {
-        var pageDependencies = buildOrderRuleDependencies(orderingRules);
+    static int doPart2(Rules rules, Updates updates) {
+        var pages = updates.pages;
+        var offsets = updates.offsets;
+        var seen = rules.newPageSet();
+        var longest = 0;
+        for (var i = 0; i < updates.size(); i++) {
+            longest = Math.max(longest, offsets[i + 1] - offsets[i]);
+        }
+        var order = new int[longest];
         var sum = 0;
-        for (var pageList : pageLists) {
-            if (!isValidOrder(pageDependencies, pageList)) {
-                var sortedList = new ArrayList<>(pageList);
-                sortedList.sort((i1, i2) -> !pageDependencies.get(i1).contains(i2) ? -1 : 1);
-                sum += sortedList.get(sortedList.size() / 2); // the middle page
+        for (var i = 0; i < updates.size(); i++) {
+            if (!rules.isValidOrder(pages, offsets[i], offsets[i + 1], seen)) {
+                sum += rules.middle(pages, offsets[i], offsets[i + 1], seen, order);
             }
         }
         return sum;
     }
 
-    private static HashMap<Integer, Set<Integer>> buildOrderRuleDependencies(List<int[]> orderingRules) {
-        var pageDependencies = new HashMap<Integer, Set<Integer>>();
-        for (var orderingRule : orderingRules) {
-            var pageDependency = pageDependencies.computeIfAbsent(orderingRule[1], key -> new HashSet<>());
-            pageDependency.add(orderingRule[0]);
+    /**
+     * The ordering rules as a bit matrix: bit {@code after} of row {@code before} is set if {@code before} must come
+     * before {@code after}.
+     */
+    static final class Rules {
+
+        private final int words;
+        private final long[] matrix;
+        // whether a page must come before itself, or two pages each before the other
+        private boolean contradictory;
+
+        /**
+         * @param pages one more than the largest page number
+         */
+        Rules(int pages) {
+            words = (pages + 63) >>> 6;
+            matrix = new long[pages * words];
         }
-        return pageDependencies;
-    }
 
-    private static boolean isValidOrder(HashMap<Integer, Set<Integer>> pageDependencies, List<Integer> pageList) {
-        var valid = true;
-        var pagesSeen = new HashSet<Integer>();
-        for (var page : pageList) {
-            for (var dependency : pageDependencies.get(page)) {
-                valid &= !pageList.contains(dependency) || pagesSeen.contains(dependency);
+        void add(int before, int after) {
+            contradictory |= before == after || isBefore(after, before);
+            matrix[before * words + (after >>> 6)] |= 1L << after;
+        }
+
+        boolean isBefore(int before, int after) {
+            return (matrix[before * words + (after >>> 6)] & 1L << after) != 0;
+        }
+
+        /**
+         * Returns an empty set of pages for {@link #isValidOrder(int[], int, int, long[])}.
+         */
+        long[] newPageSet() {
+            return new long[words];
+        }
+
+        /**
+         * Checks that no page of a list has a page before it that the rules say must come after it.
+         *
+         * @param list the pages of the lists
+         * @param from the first page of the list, inclusive
+         * @param to the last page of the list, exclusive
+         * @param seen an empty set of pages from {@link #newPageSet()}, left empty
+         * @return whether the list respects the rules
+         */
+        boolean isValidOrder(int[] list, int from, int to, long[] seen) {
+            // only the words between the lowest and highest page seen can share a page
+            var low = words;
+            var high = -1;
+            var i = from;
+            var valid = true;
+            for (; i < to && valid; i++) {
+                var row = list[i] * words;
+                for (var w = low; w <= high; w++) {
+                    valid &= (matrix[row + w] & seen[w]) == 0;
+                }
+                var word = list[i] >>> 6;
+                seen[word] |= 1L << list[i];
+                low = Math.min(low, word);
+                high = Math.max(high, word);
+            }
+            for (var j = from; j < i; j++) {
+                seen[list[j] >>> 6] = 0;
+            }
+            return valid;
+        }
+
+        /**
+         * Returns the middle page of a list in the order of the rules, without sorting it if the rules order every
+         * pair of its pages.
+         *
+         * @param list the pages of the lists
+         * @param from the first page of the list, inclusive
+         * @param to the last page of the list, exclusive
+         * @param pageSet an empty set of pages from {@link #newPageSet()}, left empty
+         * @param order space for the pages of the list
+         * @return the middle page
+         * @throws IllegalArgumentException if the rules have a cycle among the pages of the list
+         */
+        int middle(int[] list, int from, int to, long[] pageSet, int[] order) {
+            var n = to - from;
+            var low = words;
+            var high = -1;
+            var distinct = true;
+            for (var i = from; i < to; i++) {
+                var word = list[i] >>> 6;
+                distinct &= (pageSet[word] & 1L << list[i]) == 0;
+                pageSet[word] |= 1L << list[i];
+                low = Math.min(low, word);
+                high = Math.max(high, word);
+            }
+
+            // place each page by the number of pages of the list after it, the last page has none
+            Arrays.fill(order, 0, n, -1);
+            var placed = distinct;
+            for (var i = from; i < to && placed; i++) {
+                var row = list[i] * words;
+                var after = 0;
+                for (var w = low; w <= high; w++) {
+                    after += Long.bitCount(matrix[row + w] & pageSet[w]);
+                }
+                placed = after < n && order[n - 1 - after] < 0;
+                if (placed) {
+                    order[n - 1 - after] = list[i];
+                }
+            }
+            for (var w = low; w <= high; w++) {
+                pageSet[w] = 0;
+            }
+
+            // with at most one rule between two pages, distinct counts of 0 to n - 1 are one rule between every two
+            // pages, without a cycle; otherwise the pages after each page in the order must be the ones it must come
+            // before, which holds if none of them must come before it
+            if (placed && (!contradictory || isValidOrder(order, 0, n, pageSet))) {
+                return order[n / 2];
             }
-            pagesSeen.add(page);
+            return topologicalOrder(list, from, to)[n / 2];
+        }
+
+        /**
+         * Orders the pages of a list by the rules, from the pages with no page of the list before them.
+         */
+        private int[] topologicalOrder(int[] list, int from, int to) {
+            var n = to - from;
+            var before = new int[n];
+            for (var i = 0; i < n; i++) {
+                for (var j = 0; j < n; j++) {
+                    before[i] += i != j && isBefore(list[from + j], list[from + i]) ? 1 : 0;
+                }
+            }
+            var order = new int[n];
+            var done = new boolean[n];
+            for (var k = 0; k < n; k++) {
+                var next = 0;
+                while (next < n && (done[next] || before[next] > 0)) {
+                    next++;
+                }
+                if (next == n) {
+                    throw new IllegalArgumentException("the rules have a cycle among the pages "
+                            + Arrays.toString(Arrays.copyOfRange(list, from, to)));
+                }
+                done[next] = true;
+                order[k] = list[from + next];
+                for (var j = 0; j < n; j++) {
+                    before[j] -= j != next && isBefore(list[from + next], list[from + j]) ? 1 : 0;
+                }
+            }
+            return order;
+        }
+    }
+
+    /**
+     * The page lists, with the pages of list {@code i} at {@code pages[offsets[i]]} to
+     * {@code pages[offsets[i + 1] - 1]}.
+     */
+    record Updates(int[] pages, int[] offsets) {
+
+        int size() {
+            return offsets.length - 1;
         }
-        return valid;
     }
+
+    record Manual(Rules rules, Updates updates) {}
 }
@@ -1,9 +1,7 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
 
 /**
  * You're given a navigable 2-D grid that contains a starting point (^) and obstacles (#).
@@ -19,17 +17,12 @@ import java.util.HashSet;
  * For each iteration, record each coordinate and direction traversed.
  * If the coordinate and direction is repeated then the obstacle has caused a loop.
  */
-public class Day06 {
+public class Day06 implements Solver<Grid> {
 
-    private static final int[][] DIR = new int[][] { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
+    private static final Metrics.Counter STATES = Metrics.counter("Day06.states");
 
     public static void main(String[] args) throws IOException {
-        // read into a 2-D grid
-        var input = Files.readAllLines(Path.of("resources/day06"));
-        var grid = new char[input.size()][];
-        for (var i = 0; i < input.size(); i++) {
-            grid[i] = input.get(i).toCharArray();
-        }
+        var grid = parseInput(ByteCursor.map(Path.of("resources/day06")));
 
         // Solution 1: 5208
         int unique = doPart1(grid);
@@ -40,71 +33,99 @@ public class Day06 {
         System.out.println(obstructions);
     }
 
-    private static int doPart1(char[][] grid) {
+    @Override
+    public Grid parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Grid parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Grid input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(Grid input) {
+        return doPart2(input);
+    }
+
+    static Grid parseInput(ByteCursor input) {
+        return Grid.parse(input);
+    }
+
+    static int doPart1(Grid grid) {
         var move = findStartCoord(grid);
-        var visited = new HashSet<Coords>();
-        while (move != null) {
-            visited.add(move.coords);
+        var visited = new LongSet(grid.size());
+        while (move >= 0) {
+            visited.add(cell(move));
             move = move(grid, move);
         }
         return visited.size();
     }
 
-    private static int doPart2(char[][] grid) {
+    static int doPart2(Grid grid) {
         var start = findStartCoord(grid);
 
-        // traverse the path in part 1, recording all the coordinates that are visited
-        var path = new HashSet<Coords>();
+        // traverse the path in part 1, recording all the cells that are visited
+        var path = new LongSet(grid.size());
         var move = start;
-        while (move != null) {
-            path.add(move.coords);
+        while (move >= 0) {
+            path.add(cell(move));
             move = move(grid, move);
         }
         // make sure the starting point isn't in the list
-        path.remove(start.coords);
+        path.remove(cell(start));
 
         var obstructions = 0;
-        for (var coord : path) {
-            if (grid[coord.row][coord.col] == '.') {
-                grid[coord.row][coord.col] = '#';
+        var uniqueMoves = new LongSet(path.size());
+        for (var pathCell : path.toArray()) {
+            var cell = (int) pathCell;
+            if (grid.get(cell) == '.') {
+                grid.set(cell, (byte) '#');
                 // record every move we've made, we've gone in a circle when a move repeats
-                var uniqueMoves = new HashSet<Move>();
+                uniqueMoves.clear();
                 move = start;
-                while (move != null) {
+                while (move >= 0) {
+                    STATES.increment();
                     if (!uniqueMoves.add(move)) {
                         obstructions++;
                         break;
                     }
                     move = move(grid, move);
                 }
-                grid[coord.row][coord.col] = '.';
+                grid.set(cell, (byte) '.');
             }
         }
         return obstructions;
     }
 
-    private static Move move(char[][] grid, Move move) {
-        var next = new Coords(move.coords.row + DIR[move.dir][0], move.coords.col + DIR[move.dir][1]);
-        if (next.row >= 0 && next.row < grid.length && next.col >= 0 && next.col < grid[next.row].length) {
-            return grid[next.row][next.col] == '#'
-                    ? new Move(move.coords, (move.dir + 1) % 4) // obstruction, turn right
-                    : new Move(next, move.dir); // no obstruction, keep moving
+    /**
+     * Returns the next move, packed as {@code cell << 2 | dir}, or -1 when the move leaves the grid.
+     */
+    private static int move(Grid grid, int move) {
+        var cell = cell(move);
+        var dir = move & 3;
+        var next = cell + grid.offset(dir);
+        var c = grid.get(next);
+        if (c == Grid.BORDER) {
+            // out of bounds, completed the maze
+            return -1;
         }
-        // out of bounds, completed the maze
-        return null;
+        return c == '#'
+                ? cell << 2 | (dir + 1) % 4 // obstruction, turn right
+                : next << 2 | dir; // no obstruction, keep moving
     }
 
-    private static Move findStartCoord(char[][] grid) {
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                if (grid[i][j] == '^') {
-                    return new Move(new Coords(i, j), 0);
-                }
-            }
-        }
-        return null;
+    private static int cell(int move) {
+        return move >>> 2;
     }
 
-    private record Move(Coords coords, int dir) {}
-    private record Coords(int row, int col) {}
+    private static int findStartCoord(Grid grid) {
+        var start = grid.find((byte) '^');
+        return start >= 0 ? start << 2 | Grid.UP : -1;
+    }
 }
@@ -1,9 +1,7 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
 
 /**
  * You're given an equation with a solution and a sequence of numbers.
@@ -21,18 +19,10 @@ import java.util.Arrays;
  * If the running total is larger than the solution then bail out of the recursion early.
  * If the running total is smaller than the solution then try all three operations in the next recursion call.
  */
-public class Day07 {
+public class Day07 implements Solver<Day07.Equation[]> {
 
     public static void main(String[] args) throws IOException {
-        // read into a list of equations
-        var input = Files.readAllLines(Path.of("resources/day07"));
-        var equations = new Equation[input.size()];
-        for (var i = 0; i < input.size(); i++) {
-            var parts = input.get(i).strip().split(":");
-            equations[i] = new Equation(
-                    Long.parseLong(parts[0]),
-                    Arrays.stream(parts[1].strip().split(" ")).mapToInt(Integer::parseInt).toArray());
-        }
+        var equations = parseInput(ByteCursor.map(Path.of("resources/day07")));
 
         // Solution 1: 850435817339
         var sum = searchAll(equations, false);
@@ -43,7 +33,42 @@ public class Day07 {
         System.out.println(sum);
     }
 
-    private static long searchAll(Equation[] equations, boolean allowConcat) {
+    @Override
+    public Equation[] parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Equation[] parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Equation[] input) {
+        return searchAll(input, false);
+    }
+
+    @Override
+    public Object part2(Equation[] input) {
+        return searchAll(input, true);
+    }
+
+    static Equation[] parseInput(ByteCursor input) {
+        // read into a list of equations
+        var equations = new Equation[input.countLines()];
+        for (var i = 0; i < equations.length; i++) {
+            var solution = input.nextLong();
+            var values = new int[input.countNumbers()];
+            for (var j = 0; j < values.length; j++) {
+                values[j] = input.nextInt();
+            }
+            equations[i] = new Equation(solution, values);
+            input.nextLine();
+        }
+        return equations;
+    }
+
+    static long searchAll(Equation[] equations, boolean allowConcat) {
         var sum = 0L;
         for (var equation : equations) {
             if (search(equation, 1, equation.values[0], allowConcat)) {
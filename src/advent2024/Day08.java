@@ -1,11 +1,9 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -33,15 +31,10 @@ import java.util.Map;
  * coordinates are outside the grid.
  * Additionally, add the two antennas as coordinates to the set.
  */
-public class Day08 {
+public class Day08 implements Solver<Grid> {
 
     public static void main(String[] args) throws IOException {
-        // read into a grid
-        var input = Files.readAllLines(Path.of("resources/day08"));
-        var grid = new char[input.size()][];
-        for (var i = 0; i < grid.length; i++) {
-            grid[i] = input.get(i).toCharArray();
-        }
+        var grid = parseInput(ByteCursor.map(Path.of("resources/day08")));
 
         // Solution 1: 256
         var unqiue = doPart1(grid);
@@ -52,29 +45,55 @@ public class Day08 {
         System.out.println(unqiue);
     }
 
-    private static int doPart1(char[][] grid) {
+    @Override
+    public Grid parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Grid parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Grid input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(Grid input) {
+        return doPart2(input);
+    }
+
+    static Grid parseInput(ByteCursor input) {
+        return Grid.parse(input);
+    }
+
+    static int doPart1(Grid grid) {
         var frequencies = createFrequenciesMap(grid);
-        var antinodes = new HashSet<Coord>();
-        for (var coords : frequencies.values()) {
-            for (var i = 0; i < coords.size(); i++) {
-                for (var j = i + 1; j < coords.size(); j++) {
-                    var c1 = coords.get(i);
-                    var c2 = coords.get(j);
-                    var rowDelta = c1.row - c2.row;
-                    var colDelta = c1.col - c2.col;
+        var antinodes = new LongSet();
+        for (var cells : frequencies.values()) {
+            for (var i = 0; i < cells.size(); i++) {
+                for (var j = i + 1; j < cells.size(); j++) {
+                    var row1 = grid.row(cells.get(i));
+                    var col1 = grid.col(cells.get(i));
+                    var row2 = grid.row(cells.get(j));
+                    var col2 = grid.col(cells.get(j));
+                    var rowDelta = row1 - row2;
+                    var colDelta = col1 - col2;
 
                     // antinode from the 1st coordinate
-                    var newRow = c1.row + rowDelta;
-                    var newCol = c1.col + colDelta;
-                    if (isValid(grid, newRow, newCol)) {
-                        antinodes.add(new Coord(newRow, newCol));
+                    var newRow = row1 + rowDelta;
+                    var newCol = col1 + colDelta;
+                    if (grid.inBounds(newRow, newCol)) {
+                        antinodes.add(grid.index(newRow, newCol));
                     }
 
                     // antinode from the 2nd coordinate
-                    newRow = c2.row - rowDelta;
-                    newCol = c2.col - colDelta;
-                    if (isValid(grid, newRow, newCol)) {
-                        antinodes.add(new Coord(newRow, newCol));
+                    newRow = row2 - rowDelta;
+                    newCol = col2 - colDelta;
+                    if (grid.inBounds(newRow, newCol)) {
+                        antinodes.add(grid.index(newRow, newCol));
                     }
                 }
             }
@@ -82,35 +101,37 @@ public class Day08 {
         return antinodes.size();
     }
 
-    private static int doPart2(char[][] grid) {
+    static int doPart2(Grid grid) {
         var frequencies = createFrequenciesMap(grid);
-        var antinodes = new HashSet<Coord>();
-        for (var coords : frequencies.values()) {
-            for (var i = 0; i < coords.size(); i++) {
-                for (var j = i + 1; j < coords.size(); j++) {
-                    var c1 = coords.get(i);
-                    var c2 = coords.get(j);
-                    var rowDelta = c1.row - c2.row;
-                    var colDelta = c1.col - c2.col;
+        var antinodes = new LongSet();
+        for (var cells : frequencies.values()) {
+            for (var i = 0; i < cells.size(); i++) {
+                for (var j = i + 1; j < cells.size(); j++) {
+                    var row1 = grid.row(cells.get(i));
+                    var col1 = grid.col(cells.get(i));
+                    var row2 = grid.row(cells.get(j));
+                    var col2 = grid.col(cells.get(j));
+                    var rowDelta = row1 - row2;
+                    var colDelta = col1 - col2;
 
                     // add antennas so no redundant calculations of antinodes in the opposite direction
-                    antinodes.add(c1);
-                    antinodes.add(c2);
+                    antinodes.add(cells.get(i));
+                    antinodes.add(cells.get(j));
 
                     // antinodes from the 1st coordinate
-                    var newRow = c1.row + rowDelta;
-                    var newCol = c1.col + colDelta;
-                    while (isValid(grid, newRow, newCol)) {
-                        antinodes.add(new Coord(newRow, newCol));
+                    var newRow = row1 + rowDelta;
+                    var newCol = col1 + colDelta;
+                    while (grid.inBounds(newRow, newCol)) {
+                        antinodes.add(grid.index(newRow, newCol));
                         newRow += rowDelta;
                         newCol += colDelta;
                     }
 
                     // antinodes from the 2nd coordinate
-                    newRow = c2.row - rowDelta;
-                    newCol = c2.col - colDelta;
-                    while (isValid(grid, newRow, newCol)) {
-                        antinodes.add(new Coord(newRow, newCol));
+                    newRow = row2 - rowDelta;
+                    newCol = col2 - colDelta;
+                    while (grid.inBounds(newRow, newCol)) {
+                        antinodes.add(grid.index(newRow, newCol));
                         newRow -= rowDelta;
                         newCol -= colDelta;
                     }
@@ -120,23 +141,15 @@ public class Day08 {
         return antinodes.size();
     }
 
-    private static boolean isValid(char[][] grid, int newRow, int newCol) {
-        return newRow >= 0 && newRow < grid.length && newCol >= 0 && newCol < grid[0].length;
-    }
-
-    private static Map<Character, List<Coord>> createFrequenciesMap(char[][] grid) {
-        var freqencies = new HashMap<Character, List<Coord>>();
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                if (grid[i][j] != '.') {
-                    var list = freqencies.getOrDefault(grid[i][j], new ArrayList<>());
-                    list.add(new Coord(i, j));
-                    freqencies.put(grid[i][j], list);
+    private static Map<Byte, List<Integer>> createFrequenciesMap(Grid grid) {
+        var freqencies = new HashMap<Byte, List<Integer>>();
+        for (var row = 0; row < grid.rows(); row++) {
+            for (var cell = grid.index(row, 0); cell < grid.index(row, grid.cols()); cell++) {
+                if (grid.get(cell) != '.') {
+                    freqencies.computeIfAbsent(grid.get(cell), key -> new ArrayList<>()).add(cell);
                 }
             }
         }
         return freqencies;
     }
-
-    private record Coord(int row, int col) {}
 }
@@ -17,15 +17,10 @@ import java.util.List;
  * And so on for all pairs of numbers.
  * Each file is assigned a monotonically increasing id starting at 0.
  */
-public class Day09 {
+public class Day09 implements Solver<byte[]> {
 
     public static void main(String[] args) throws IOException {
-        // read into a string and convert characters to bytes
-        var input = Files.readString(Path.of("resources/day09"));
-        var file = new byte[input.length()];
-        for (var i = 0; i < input.length(); i++) {
-            file[i] = (byte) (input.charAt(i) - '0');
-        }
+        var file = parseInput(Files.readString(Path.of("resources/day09")));
 
         // Solution 1: 6337921897505
         var checksum = doPart1(file);
@@ -36,7 +31,31 @@ public class Day09 {
         System.out.println(checksum);
     }
 
-    private static long doPart1(byte[] input) {
+    @Override
+    public byte[] parse(String input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(byte[] input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(byte[] input) {
+        return doPart2(input);
+    }
+
+    static byte[] parseInput(String input) {
+        // convert characters to bytes
+        var file = new byte[input.length()];
+        for (var i = 0; i < input.length(); i++) {
+            file[i] = (byte) (input.charAt(i) - '0');
+        }
+        return file;
+    }
+
+    static long doPart1(byte[] input) {
         var fileIdx = 0;
         var leftPtr = 0;
         var rightPtr = input.length + 1; // no freespace in the last byte
@@ -77,7 +96,7 @@ public class Day09 {
         return checksum;
     }
 
-    private static long doPart2(byte[] sizes) {
+    static long doPart2(byte[] sizes) {
         var blocks = new ArrayList<Block>();
         var blocksWithFreeSpace = new LinkedList<Block>();
         var position = 0;
@@ -1,10 +1,7 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.file.Path;
 
 /**
  * You're given a 2-D grid with the characters '0' to '9'.
@@ -18,17 +15,10 @@ import java.util.Set;
  * Solution 2: DFS. Use a memo to keep track of how the number of paths from each cell.
  * The size of the grid makes this optimization unnecessary.
  */
-public class Day10 {
-
-    private static final int[][] NEXT = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+public class Day10 implements Solver<Grid> {
 
     public static void main(String[] args) throws IOException {
-        // read into a grid
-        var input = Files.readAllLines(java.nio.file.Path.of("resources/day10"));
-        var grid = new char[input.size()][];
-        for (var i = 0; i < grid.length; i++) {
-            grid[i] = input.get(i).toCharArray();
-        }
+        var grid = parseInput(ByteCursor.map(Path.of("resources/day10")));
 
         // Solution 1: 531
         var unqiue = doPart1(grid);
@@ -39,37 +29,62 @@ public class Day10 {
         System.out.println(unqiue);
     }
 
-    private static int doPart1(char[][] grid) {
+    @Override
+    public Grid parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Grid parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Grid input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(Grid input) {
+        return doPart2(input);
+    }
+
+    static Grid parseInput(ByteCursor input) {
+        return Grid.parse(input);
+    }
+
+    static int doPart1(Grid grid) {
         var sum = 0;
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                var visited = new HashSet<Coord>();
-                sum += dfs(grid, i, j, '0', visited);
+        var visited = new LongSet();
+        for (var row = 0; row < grid.rows(); row++) {
+            for (var cell = grid.index(row, 0); cell < grid.index(row, grid.cols()); cell++) {
+                visited.clear();
+                sum += dfs(grid, cell, '0', visited);
             }
         }
         return sum;
     }
 
-    private static int doPart2(char[][] grid) {
-        var memo = new HashMap<Coord, Integer>();
+    static int doPart2(Grid grid) {
+        var memo = new LongIntMap(grid.size());
         var sum = 0;
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                sum += dfs2(grid, i, j, '0', memo);
+        for (var row = 0; row < grid.rows(); row++) {
+            for (var cell = grid.index(row, 0); cell < grid.index(row, grid.cols()); cell++) {
+                sum += dfs2(grid, cell, '0', memo);
             }
         }
         return sum;
     }
 
-    private static int dfs(char[][] grid, int row, int col, char expected, Set<Coord> visited) {
-        if (row >= 0 && row < grid.length && col >= 0 && col < grid[row].length
-                && grid[row][col] == expected && visited.add(new Coord(row, col))) {
+    private static int dfs(Grid grid, int cell, char expected, LongSet visited) {
+        // the border never matches a digit so the search stops at the edge of the grid
+        if (grid.get(cell) == expected && visited.add(cell)) {
             if (expected == '9') {
                 return 1;
             } else {
                 var result = 0;
-                for (var next : NEXT) {
-                    result += dfs(grid, row + next[0], col + next[1], (char) (expected + 1), visited);
+                for (var offset : grid.directions()) {
+                    result += dfs(grid, cell + offset, (char) (expected + 1), visited);
                 }
                 return result;
             }
@@ -77,26 +92,23 @@ public class Day10 {
         return 0;
     }
 
-    private static int dfs2(char[][] grid, int row, int col, char expected, HashMap<Coord, Integer> memo) {
-        if (row >= 0 && row < grid.length && col >= 0 && col < grid[row].length && grid[row][col] == expected) {
+    private static int dfs2(Grid grid, int cell, char expected, LongIntMap memo) {
+        if (grid.get(cell) == expected) {
             if (expected == '9') {
                 return 1;
             } else {
-                var key = new Coord(row, col);
-                var value = memo.get(key);
-                if (value != null) {
+                var value = memo.get(cell, -1);
+                if (value >= 0) {
                     return value;
                 }
                 var result = 0;
-                for (var next : NEXT) {
-                    result += dfs2(grid, row + next[0], col + next[1], (char) (expected + 1), memo);
+                for (var offset : grid.directions()) {
+                    result += dfs2(grid, cell + offset, (char) (expected + 1), memo);
                 }
-                memo.put(key, result);
+                memo.put(cell, result);
                 return result;
             }
         }
         return 0;
     }
-
-    private record Coord(int row, int col) {}
 }
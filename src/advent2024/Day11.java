@@ -2,10 +2,8 @@ package advent2024;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * You're given a list of numbers.
@@ -23,10 +21,23 @@ import java.util.Map;
  * <p>Solution: Create a function that counts the size of the list generated for one number after N iterations.
  * The function can be called recursively so as to not need to return the list (only the count) from the function.
  * Use memoization to record the size of the list for this state as part 2 takes too long to finish otherwise.
+ * The state is packed into a single {@code long} key, {@code num << 7 | iterations}, for a primitive map, so
+ * iterations are at most {@value #MAX_ITERATIONS} and every number, given or made by the iterations, is below
+ * 2<sup>57</sup>; anything else throws rather than colliding in the map.
  */
-public class Day11 {
+public class Day11 implements Solver<long[]> {
 
-    private static final long[] POW = new long[18];
+    /**
+     * The most iterations the memo key has bits for.
+     */
+    static final int MAX_ITERATIONS = (1 << 7) - 1;
+    // the most bits a number can have below the iterations in the memo key
+    private static final int NUM_BITS = Long.SIZE - 7;
+
+    private static final long[] POW = new long[19];
+
+    private static final Metrics.Counter MEMO_HITS = Metrics.counter("Day11.memo.hits");
+    private static final Metrics.Counter MEMO_MISSES = Metrics.counter("Day11.memo.misses");
 
     static {
         POW[0] = 1;
@@ -36,9 +47,7 @@ public class Day11 {
     }
 
     public static void main(String[] args) throws IOException {
-        // read into a list
-        var input = Files.readString(java.nio.file.Path.of("resources/day11"));
-        var nums = Arrays.stream(input.split(" ")).mapToLong(Long::parseLong).toArray();
+        var nums = parseInput(Files.readString(Path.of("resources/day11")));
 
         // Solution 1: 185894
         var count = countForList(nums, 25);
@@ -49,8 +58,36 @@ public class Day11 {
         System.out.println(count);
     }
 
-    private static long countForList(long[] list, int iterations) {
-        var memo = new HashMap<State, Long>();
+    @Override
+    public long[] parse(String input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(long[] input) {
+        return countForList(input, 25);
+    }
+
+    @Override
+    public Object part2(long[] input) {
+        return countForList(input, 75);
+    }
+
+    static long[] parseInput(String input) {
+        // read into a list
+        return Arrays.stream(input.split(" ")).mapToLong(Long::parseLong).toArray();
+    }
+
+    static long countForList(long[] list, int iterations) {
+        if (iterations < 0 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("iterations out of range 0 to " + MAX_ITERATIONS + ": " + iterations);
+        }
+        for (var num : list) {
+            if (num >>> NUM_BITS != 0) {
+                throw new IllegalArgumentException("number out of range 0 to 2^" + NUM_BITS + " - 1: " + num);
+            }
+        }
+        var memo = new LongLongMap();
         var count = 0L;
         for (var num : list) {
             count += countForNum(num, iterations, memo);
@@ -58,18 +95,23 @@ public class Day11 {
         return count;
     }
 
-    private static long countForNum(long num, int iterations, Map<State, Long> memo) {
+    private static long countForNum(long num, int iterations, LongLongMap memo) {
         if (iterations == 0) {
             // we've done every iteration, the number cannot be modified
             return 1;
         }
 
         // unique state is the number we are modifiying and the number of iterations remaining
-        var state = new State(num, iterations);
-        var count = memo.get(state);
-        if (count != null) {
+        if (num >>> NUM_BITS != 0) {
+            throw new ArithmeticException("number too large for the memo key after multiplying by 2024: " + num);
+        }
+        var state = num << 7 | iterations;
+        var count = memo.get(state, -1);
+        if (count >= 0) {
+            MEMO_HITS.increment();
             return count;
         }
+        MEMO_MISSES.increment();
 
         if (num == 0) {
             // condition 1: num is 0, make 1
@@ -87,13 +129,11 @@ public class Day11 {
                         + countForNum(num % POW[digits / 2], iterations - 1, memo);
             } else {
                 // condition 3: otherwise, multiply num by 2024
-                count = countForNum(2024 * num, iterations - 1, memo);
+                count = countForNum(Math.multiplyExact(2024, num), iterations - 1, memo);
             }
         }
 
         memo.put(state, count);
         return count;
     }
-
-    private record State(long num, int remainingIterations) {}
 }
@@ -1,7 +1,6 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -19,17 +18,10 @@ import java.nio.file.Path;
  * Solution: Do the same classification as part 1.
  * Sides are calculated by doing corner detection. (Thanks Aaron!)
  */
-public class Day12 {
-
-    private static final int[][] DIRS = new int[][] { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+public class Day12 implements Solver<Grid> {
 
     public static void main(String[] args) throws IOException {
-        // read into a list
-        var input = Files.readAllLines(Path.of("resources/day12"));
-        var grid = new char[input.size()][];
-        for (var i = 0; i < grid.length; i++) {
-            grid[i] = input.get(i).toCharArray();
-        }
+        var grid = parseInput(ByteCursor.map(Path.of("resources/day12")));
 
         // Solution 1: 1573474
         var sumProduct = doPart1(grid);
@@ -40,29 +32,45 @@ public class Day12 {
         System.out.println(sumProduct);
     }
 
-    private static long doPart1(char[][] grid) {
-        var classifiedGrid = new int[grid.length][grid[0].length];
+    @Override
+    public Grid parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Grid parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Grid input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(Grid input) {
+        return doPart2(input);
+    }
+
+    static Grid parseInput(ByteCursor input) {
+        return Grid.parse(input);
+    }
+
+    static long doPart1(Grid grid) {
+        var classifiedGrid = new int[grid.size()];
         var length = classify(grid, classifiedGrid);
         var perimeter = new int[length];
         var areas = new int[length];
 
-        for (var i = 0; i < classifiedGrid.length; i++) {
-            for (var j = 0; j < classifiedGrid[i].length; j++) {
-                var id = classifiedGrid[i][j];
+        for (var row = 0; row < grid.rows(); row++) {
+            for (var cell = grid.index(row, 0); cell < grid.index(row, grid.cols()); cell++) {
+                var id = classifiedGrid[cell];
                 // each cell adds to the area
                 areas[id - 1]++;
-                for (var dir : DIRS) {
+                for (var offset : grid.directions()) {
                     // look up, down, left, right for whether there is a diff in id with the current cell
-                    var adjacentRow = i + dir[0];
-                    var adjacentCol = j + dir[1];
-                    if (isValid(grid, adjacentRow, adjacentCol)) {
-                        // adjacent cell is in bounds, only a perimeter if different ids
-                        var adjacentId = classifiedGrid[adjacentRow][adjacentCol];
-                        if (id != adjacentId) {
-                            perimeter[id - 1]++;
-                        }
-                    } else {
-                        // adjacent cell is out of bounds, always a perimeter
+                    // the border has id 0 so an adjacent cell out of bounds is always a perimeter
+                    if (id != classifiedGrid[cell + offset]) {
                         perimeter[id - 1]++;
                     }
                 }
@@ -71,25 +79,26 @@ public class Day12 {
         return sumProduct(perimeter, areas);
     }
 
-    private static long doPart2(char[][] grid) {
-        var cfGrid = new int[grid.length][grid[0].length];
+    static long doPart2(Grid grid) {
+        var cfGrid = new int[grid.size()];
         var length = classify(grid, cfGrid);
         var areas = new int[length];
         var sides = new int[length];
-        var rows = cfGrid.length;
-        var cols = cfGrid[0].length;
-
-        for (var i = 0; i < rows; i++) {
-            for (var j = 0; j < cols; j++) {
-                var id = cfGrid[i][j];
-                var up = i - 1 >= 0 ? cfGrid[i - 1][j] : 0;
-                var upRight = i - 1 >= 0 && j + 1 < cols ? cfGrid[i - 1][j + 1] : 0;
-                var right = j + 1 < rows ? cfGrid[i][j + 1] : 0;
-                var downRight = i + 1 < rows && j + 1 < cols ? cfGrid[i + 1][j + 1] : 0;
-                var down = i + 1 < rows ? cfGrid[i + 1][j] : 0;
-                var downLeft = i + 1 < rows && j - 1 >= 0 ? cfGrid[i + 1][j - 1] : 0;
-                var left = j - 1 >= 0 ? cfGrid[i][j - 1] : 0;
-                var upLeft = i - 1 >= 0 && j - 1 >= 0 ? cfGrid[i - 1][j - 1] : 0;
+        var dirs = grid.directions();
+        var diags = grid.diagonals();
+
+        for (var row = 0; row < grid.rows(); row++) {
+            for (var cell = grid.index(row, 0); cell < grid.index(row, grid.cols()); cell++) {
+                // the border has id 0
+                var id = cfGrid[cell];
+                var up = cfGrid[cell + dirs[Grid.UP]];
+                var upRight = cfGrid[cell + diags[1]];
+                var right = cfGrid[cell + dirs[Grid.RIGHT]];
+                var downRight = cfGrid[cell + diags[2]];
+                var down = cfGrid[cell + dirs[Grid.DOWN]];
+                var downLeft = cfGrid[cell + diags[3]];
+                var left = cfGrid[cell + dirs[Grid.LEFT]];
+                var upLeft = cfGrid[cell + diags[0]];
                 sides[id - 1] += ((id != up && id != left) ? 1 : 0)
                         + ((id == up && id == left && id != upLeft) ? 1 : 0)
                         + ((id != down && id != left) ? 1 : 0)
@@ -104,36 +113,30 @@ public class Day12 {
         return sumProduct(sides, areas);
     }
 
-    private static int classify(char[][] grid, int[][] classified) {
+    private static int classify(Grid grid, int[] classified) {
         var length = 0;
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                if (classified[i][j] == 0) {
-                    dfs(grid, i, j, classified, ++length);
+        for (var row = 0; row < grid.rows(); row++) {
+            for (var cell = grid.index(row, 0); cell < grid.index(row, grid.cols()); cell++) {
+                if (classified[cell] == 0) {
+                    dfs(grid, cell, classified, ++length);
                 }
             }
         }
         return length;
     }
 
-    private static void dfs(char[][] grid, int row, int col, int[][] classified, int id) {
-        var c = grid[row][col];
-        classified[row][col] = id;
-        for (var dir : DIRS) {
-            var adjacentRow = row + dir[0];
-            var adjacentCol = col + dir[1];
-            if (isValid(grid, adjacentRow, adjacentCol)
-                    && classified[adjacentRow][adjacentCol] == 0
-                    && grid[adjacentRow][adjacentCol] == c) {
-                dfs(grid, adjacentRow, adjacentCol, classified, id);
+    private static void dfs(Grid grid, int cell, int[] classified, int id) {
+        var c = grid.get(cell);
+        classified[cell] = id;
+        for (var offset : grid.directions()) {
+            var adjacent = cell + offset;
+            // the border never matches a letter
+            if (classified[adjacent] == 0 && grid.get(adjacent) == c) {
+                dfs(grid, adjacent, classified, id);
             }
         }
     }
 
-    private static boolean isValid(char[][] grid, int row, int col) {
-        return row >= 0 && row < grid.length && col >= 0 && col < grid[row].length;
-    }
-
     private static long sumProduct(int[] a, int[] b) {
         var sumProduct = 0L;
         for (var i = 0; i < a.length; i++) {
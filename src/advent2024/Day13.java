@@ -1,24 +1,17 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.regex.Pattern;
 
 /**
  * Solution: Use Cramer's rule to solve a system of N equations with N variables.
  * Floating point solutions are invalid so check the determinant against the variable numerators.
  */
-public class Day13 {
+public class Day13 implements Solver<ArrayList<Day13.Machine>> {
 
     public static void main(String[] args) throws IOException {
-        // read into a list of buttons and prizes
-        var input = Files.readAllLines(Path.of("resources/day13"));
-        var machines = new ArrayList<Machine>();
-        for (var i = 0; i < input.size(); i += 4) {
-            machines.add(new Machine(parse(input.get(i)), parse(input.get(i + 1)), parse(input.get(i + 2))));
-        }
+        var machines = parseInput(ByteCursor.map(Path.of("resources/day13")));
 
         var total = calculate(machines, 0);
         System.out.println(total);
@@ -27,7 +20,39 @@ public class Day13 {
         System.out.println(total);
     }
 
-    private static long calculate(ArrayList<Machine> machines, long offset) {
+    @Override
+    public ArrayList<Machine> parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public ArrayList<Machine> parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(ArrayList<Machine> input) {
+        return calculate(input, 0);
+    }
+
+    @Override
+    public Object part2(ArrayList<Machine> input) {
+        return calculate(input, 10000000000000L);
+    }
+
+    static ArrayList<Machine> parseInput(ByteCursor input) {
+        // read into a list of buttons and prizes, six numbers per machine
+        var machines = new ArrayList<Machine>();
+        while (input.skipToNumber()) {
+            machines.add(new Machine(
+                    new Coord(input.nextInt(), input.nextInt()),
+                    new Coord(input.nextInt(), input.nextInt()),
+                    new Coord(input.nextInt(), input.nextInt())));
+        }
+        return machines;
+    }
+
+    static long calculate(ArrayList<Machine> machines, long offset) {
         var total = 0L;
         for (var machine : machines) {
             var sln = cramers(machine, offset);
@@ -38,13 +63,6 @@ public class Day13 {
         return total;
     }
 
-    private static Coord parse(String input) {
-        var pattern = Pattern.compile("X[+=](\\d+),\\s*Y[+=](\\d+)");
-        var matcher = pattern.matcher(input);
-        matcher.find();
-        return new Coord(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
-    }
-
     private static long[] cramers(Machine machine, long offset) {
         // equations:
         // buttonA.x (a) * n + buttonB.x (b) * m = prize.x (c)
@@ -62,6 +80,6 @@ public class Day13 {
                 ? new long[] { numX / determinant, numY / determinant } : null;
     }
 
-    private record Coord(int x, int y) {}
-    private record Machine(Coord buttonA, Coord buttonB, Coord prize) { }
+    record Coord(int x, int y) {}
+    record Machine(Coord buttonA, Coord buttonB, Coord prize) { }
 }
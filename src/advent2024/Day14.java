@@ -1,11 +1,9 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * You're given a list of start coordinates and deltas for a group of "robots".
@@ -22,22 +20,14 @@ import java.util.regex.Pattern;
  * If there's a large cluster (100+ cells) then we stop iterating.
  * A print of the current robot positions can confirm the pattern visually.
  */
-public class Day14 {
+public class Day14 implements Solver<List<Day14.RobotDef>> {
 
     private static final int HEIGHT = 103;
     private static final int WIDTH = 101;
     private static final int[][] NEXT = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
 
     public static void main(String[] args) throws IOException {
-        var inputs = Files.readAllLines(Path.of("resources/day14"));
-        var pattern = Pattern.compile("p=(-?\\d+),(-?\\d+) v=(-?\\d+),(-?\\d+)");
-        var robots = new ArrayList<RobotDef>();
-        for (var input : inputs) {
-            var matcher = pattern.matcher(input);
-            matcher.find();
-            robots.add(new RobotDef(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
-                    Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4))));
-        }
+        var robots = parseInput(ByteCursor.map(Path.of("resources/day14")));
 
         // Solution 1: 228690000
         var total = doPart1(robots);
@@ -48,7 +38,35 @@ public class Day14 {
         System.out.println("Solution 2: " + seconds);
     }
 
-    private static int doPart1(List<RobotDef> robotDef) {
+    @Override
+    public List<RobotDef> parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public List<RobotDef> parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(List<RobotDef> input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(List<RobotDef> input) {
+        return doPart2(input);
+    }
+
+    static List<RobotDef> parseInput(ByteCursor input) {
+        var robots = new ArrayList<RobotDef>(input.countLines());
+        while (input.skipToNumber()) {
+            robots.add(new RobotDef(input.nextInt(), input.nextInt(), input.nextInt(), input.nextInt()));
+        }
+        return robots;
+    }
+
+    static int doPart1(List<RobotDef> robotDef) {
         // move 100 seconds
         var robots = robotDef.stream().map(x -> new Robot(x, x.startX, x.startY)).toList();
         for (var i = 1; i <= 100; i++) {
@@ -69,7 +87,7 @@ public class Day14 {
         return quad[0] * quad[1] * quad[2] * quad[3];
     }
 
-    private static int doPart2(List<RobotDef> robotDef) {
+    static int doPart2(List<RobotDef> robotDef) {
         var robots = robotDef.stream().map(x -> new Robot(x, x.startX, x.startY)).toList();
         var seconds = 0;
         while (largestBlobSize(robots) < 100) {
@@ -147,7 +165,7 @@ public class Day14 {
         System.out.println(builder);
     }
 
-    private record RobotDef(int startX, int startY, int deltaX, int deltaY) {}
+    record RobotDef(int startX, int startY, int deltaX, int deltaY) {}
 
     private static class Robot {
 
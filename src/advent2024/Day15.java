@@ -1,19 +1,17 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  *
  */
-public class Day15 {
+public class Day15 implements Solver<Day15.Warehouse> {
 
-    private static final Coord[] DIR;
+    private static final int[] DIR;
     private static final char EMPTY = '.';
     private static final char BOX = 'O';
     private static final char LEFT_BOX = '[';
@@ -26,70 +24,85 @@ public class Day15 {
     private static final char DOWN = 'v';
 
     static {
-        DIR = new Coord[128];
-        DIR[UP] = new Coord(-1, 0);
-        DIR[MOVE_RIGHT] = new Coord(0, 1);
-        DIR[DOWN] = new Coord(1, 0);
-        DIR[MOVE_LEFT] = new Coord(0, -1);
+        DIR = new int[128];
+        DIR[UP] = Grid.UP;
+        DIR[MOVE_RIGHT] = Grid.RIGHT;
+        DIR[DOWN] = Grid.DOWN;
+        DIR[MOVE_LEFT] = Grid.LEFT;
     }
 
     public static void main(String[] args) throws IOException {
-        var input = Files.readAllLines(Path.of("resources/day15"));
-        var rows = 0;
-        while (!input.get(rows).isBlank()) {
-            rows++;
-        }
-        var grid = new char[rows][];
-        for (var i = 0; i < rows; i++) {
-            grid[i] = input.get(i).toCharArray();
-        }
-        var moves = new ArrayList<Character>();
-        for (var i = rows + 1; i < input.size(); i++) {
-            for (var j = 0; j < input.get(i).length(); j++) {
-                moves.add(input.get(i).charAt(j));
-            }
-        }
+        var warehouse = parseInput(ByteCursor.map(Path.of("resources/day15")));
 
         // Solution 1: 1463715
-        var score = doPart1(grid, moves);
+        var score = doPart1(warehouse.grid, warehouse.moves);
         System.out.println("Solution 1: " + score);
 
         // Solution 2: 1500814 too high
         //             1066498 too low   1481392
-        score = doPart2(grid, moves);
+        score = doPart2(warehouse.grid, warehouse.moves);
         System.out.println("Solution 2: " + score);
     }
 
-    private static int doPart1(char[][] grid, List<Character> moves) {
-        // copy input
-        var newGrid = new char[grid.length][];
-        for (var i = 0; i < grid.length; i++) {
-            newGrid[i] = Arrays.copyOf(grid[i], grid[i].length);
+    @Override
+    public Warehouse parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Warehouse parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Warehouse input) {
+        return doPart1(input.grid, input.moves);
+    }
+
+    @Override
+    public Object part2(Warehouse input) {
+        return doPart2(input.grid, input.moves);
+    }
+
+    static Warehouse parseInput(ByteCursor input) {
+        var grid = Grid.parse(input);
+        var moves = new ArrayList<Character>();
+        while (input.hasRemaining()) {
+            var c = input.next();
+            if (c != '\n' && c != '\r') {
+                moves.add((char) c);
+            }
         }
-        grid = newGrid;
+        return new Warehouse(grid, moves);
+    }
 
-        var curr = getStart(grid);
+    static int doPart1(Grid grid, List<Character> moves) {
+        // copy input
+        grid = grid.copy();
+
+        var curr = grid.find((byte) ME);
         for (var move : moves) {
-            var dir = DIR[move];
-            var next = new Coord(curr.row + dir.row, curr.col + dir.col);
+            var offset = grid.offset(DIR[move]);
+            var next = curr + offset;
 
-            if (isValid(grid, next) && grid[next.row][next.col] == EMPTY) {
+            // the border is neither empty nor a box
+            if (grid.get(next) == EMPTY) {
                 // move
-                grid[curr.row][curr.col] = EMPTY;
-                grid[next.row][next.col] = ME;
+                grid.set(curr, (byte) EMPTY);
+                grid.set(next, (byte) ME);
                 curr = next;
-            } else if (isValid(grid, next) && grid[next.row][next.col] == BOX) {
+            } else if (grid.get(next) == BOX) {
                 // find the next space that isn't a box
-                var walk = new Coord(next.row + dir.row, next.col + dir.col);
-                while (isValid(grid, walk) && grid[walk.row][walk.col] == BOX) {
-                    walk = new Coord(walk.row + dir.row, walk.col + dir.col);
+                var walk = next + offset;
+                while (grid.get(walk) == BOX) {
+                    walk += offset;
                 }
 
                 // shift the barrels if there's an empty space at the end and move
-                if (isValid(grid, walk) && grid[walk.row][walk.col] == EMPTY) {
-                    grid[curr.row][curr.col] = EMPTY;
-                    grid[next.row][next.col] = ME;
-                    grid[walk.row][walk.col] = BOX;
+                if (grid.get(walk) == EMPTY) {
+                    grid.set(curr, (byte) EMPTY);
+                    grid.set(next, (byte) ME);
+                    grid.set(walk, (byte) BOX);
                     curr = next;
                 }
             }
@@ -97,51 +110,52 @@ public class Day15 {
         return score(grid);
     }
 
-    private static int doPart2(char[][] grid, List<Character> moves) {
+    static int doPart2(Grid grid, List<Character> moves) {
         // copy and transform input into a double-width grid
-        var newGrid = new char[grid.length][2 * grid[0].length];
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                newGrid[i][2 * j] = grid[i][j];
-                newGrid[i][2 * j + 1] = grid[i][j];
-                if (grid[i][j] == BOX) {
-                    newGrid[i][2 * j] = LEFT_BOX;
-                    newGrid[i][2 * j + 1] = RIGHT_BOX;
-                } else if (grid[i][j] == ME) {
-                    newGrid[i][2 * j + 1] = EMPTY;
+        var newGrid = new Grid(grid.rows(), 2 * grid.cols(), (byte) EMPTY);
+        for (var i = 0; i < grid.rows(); i++) {
+            for (var j = 0; j < grid.cols(); j++) {
+                var c = grid.get(i, j);
+                var left = newGrid.index(i, 2 * j);
+                newGrid.set(left, c);
+                newGrid.set(left + 1, c);
+                if (c == BOX) {
+                    newGrid.set(left, (byte) LEFT_BOX);
+                    newGrid.set(left + 1, (byte) RIGHT_BOX);
+                } else if (c == ME) {
+                    newGrid.set(left + 1, (byte) EMPTY);
                 }
             }
         }
         grid = newGrid;
 
-        var curr = getStart(grid);
+        var curr = grid.find((byte) ME);
         for (var move : moves) {
-            var dir = DIR[move];
-            var next = new Coord(curr.row + dir.row, curr.col + dir.col);
+            var offset = grid.offset(DIR[move]);
+            var next = curr + offset;
 
-            if (isValid(grid, next) && grid[next.row][next.col] == EMPTY) {
+            if (grid.get(next) == EMPTY) {
                 // move
-                grid[curr.row][curr.col] = EMPTY;
-                grid[next.row][next.col] = ME;
+                grid.set(curr, (byte) EMPTY);
+                grid.set(next, (byte) ME);
                 curr = next;
-            } else if (isValid(grid, next)
-                    && (grid[next.row][next.col] == LEFT_BOX || grid[next.row][next.col] == RIGHT_BOX)) {
+            } else if (grid.get(next) == LEFT_BOX || grid.get(next) == RIGHT_BOX) {
                 if (move == MOVE_LEFT) {
                     curr = shiftLeft(grid, curr, next);
                 } else if (move == MOVE_RIGHT) {
                     curr = shiftRight(grid, curr, next);
                 } else {
-                    curr = shiftVertical(grid, curr, dir, next);
+                    curr = shiftVertical(grid, curr, offset, next);
                 }
             }
 
             //print(grid, move);
 
             // error check
-            for (var i = 0; i < grid.length; i++) {
-                for (var j = 0 ; j < grid[i].length - 1; j++) {
-                    if (grid[i][j] == LEFT_BOX && grid[i][j + 1] != RIGHT_BOX
-                            || grid[i][j] != LEFT_BOX && grid[i][j + 1] == RIGHT_BOX) {
+            for (var i = 0; i < grid.rows(); i++) {
+                for (var j = grid.index(i, 0); j < grid.index(i, grid.cols() - 1); j++) {
+                    if (grid.get(j) == LEFT_BOX && grid.get(j + 1) != RIGHT_BOX
+                            || grid.get(j) != LEFT_BOX && grid.get(j + 1) == RIGHT_BOX) {
                         print(grid, move);
                         return 0;
                     }
@@ -153,44 +167,46 @@ public class Day15 {
         return score(grid);
     }
 
-    private static Coord shiftLeft(char[][] grid, Coord curr, Coord next) {
+    private static int shiftLeft(Grid grid, int curr, int next) {
         // shift left, find an empty spot iterating left
-        for (var j = next.col - 2; j >= 0; j -= 2) {
-            if (grid[curr.row][j] == EMPTY) {
+        var rowStart = grid.index(grid.row(curr), 0);
+        for (var j = next - 2; j >= rowStart; j -= 2) {
+            if (grid.get(j) == EMPTY) {
                 // found an empty spot, shift everything left, including '@', cell by cell
-                for (; j <= next.col; j++) {
-                    grid[curr.row][j] = grid[curr.row][j + 1];
+                for (; j <= next; j++) {
+                    grid.set(j, grid.get(j + 1));
                 }
                 // update the current position
-                grid[curr.row][curr.col] = EMPTY;
+                grid.set(curr, (byte) EMPTY);
                 return next;
             }
         }
         return curr;
     }
 
-    private static Coord shiftRight(char[][] grid, Coord curr, Coord next) {
+    private static int shiftRight(Grid grid, int curr, int next) {
         // shift right, find an empty spot iterating right
-        for (var j = next.col + 2; j < grid[curr.row].length; j++) {
-            if (grid[curr.row][j] == EMPTY) {
+        var rowEnd = grid.index(grid.row(curr), grid.cols());
+        for (var j = next + 2; j < rowEnd; j++) {
+            if (grid.get(j) == EMPTY) {
                 // found an empty spot, shift everything right, including '@', cell by cell
-                for (; j >= next.col; j--) {
-                    grid[curr.row][j] = grid[curr.row][j - 1];
+                for (; j >= next; j--) {
+                    grid.set(j, grid.get(j - 1));
                 }
                 // update the current position
-                grid[curr.row][curr.col] = EMPTY;
+                grid.set(curr, (byte) EMPTY);
                 return next;
             }
         }
         return curr;
     }
 
-    private static Coord shiftVertical(char[][] grid, Coord curr, Coord dir, Coord next) {
+    private static int shiftVertical(Grid grid, int curr, int offset, int next) {
         // shift up or down
-        var queue = new LinkedList<Coord>();
+        var queue = new LinkedList<Integer>();
         // always use the left side of the box
-        queue.add(new Coord(next.row, next.col + (grid[next.row][next.col] == LEFT_BOX ? 0 : -1)));
-        var toMove = new ArrayList<Coord>();
+        queue.add(next + (grid.get(next) == LEFT_BOX ? 0 : -1));
+        var toMove = new ArrayList<Integer>();
 
         while (!queue.isEmpty()) {
             // do a BFS, row by row
@@ -199,25 +215,24 @@ public class Day15 {
                 var box = queue.remove();
                 toMove.add(box);
 
-                var walkRow = box.row + dir.row;
-                var walkLeft = grid[walkRow][box.col];
+                var walk = box + offset;
+                var walkLeft = grid.get(walk);
                 if (walkLeft == RIGHT_BOX) {
-                    var leftBox = new Coord(walkRow, box.col - 1);
+                    var leftBox = walk - 1;
                     if (!queue.contains(leftBox)) {
                         queue.add(leftBox);
                     }
                 } else if (walkLeft == LEFT_BOX) {
-                    var straightBox = new Coord(walkRow, box.col);
-                    if (!queue.contains(straightBox)) {
-                        queue.add(straightBox);
+                    if (!queue.contains(walk)) {
+                        queue.add(walk);
                     }
                 } else if (walkLeft == WALL) {
                     return curr;
                 }
 
-                var walkRight = grid[walkRow][box.col + 1];
+                var walkRight = grid.get(walk + 1);
                 if (walkRight == LEFT_BOX) {
-                    var rightBox = new Coord(walkRow, box.col + 1);
+                    var rightBox = walk + 1;
                     if (!queue.contains(rightBox)) {
                         queue.add(rightBox);
                     }
@@ -228,36 +243,21 @@ public class Day15 {
         }
 
         for (var box : toMove.reversed()) {
-            grid[box.row][box.col] = EMPTY;
-            grid[box.row][box.col + 1] = EMPTY;
-            grid[box.row + dir.row][box.col] = LEFT_BOX;
-            grid[box.row + dir.row][box.col + 1] = RIGHT_BOX;
+            grid.set(box, (byte) EMPTY);
+            grid.set(box + 1, (byte) EMPTY);
+            grid.set(box + offset, (byte) LEFT_BOX);
+            grid.set(box + offset + 1, (byte) RIGHT_BOX);
         }
-        grid[curr.row][curr.col] = EMPTY;
-        grid[next.row][next.col] = ME;
+        grid.set(curr, (byte) EMPTY);
+        grid.set(next, (byte) ME);
         return next;
     }
 
-    private static boolean isValid(char[][] grid, Coord coord) {
-        return coord.row >= 0 && coord.row < grid.length && coord.col >= 0 && coord.col < grid[coord.row].length;
-    }
-
-    private static Coord getStart(char[][] grid) {
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                if (grid[i][j] == ME) {
-                    return new Coord(i, j);
-                }
-            }
-        }
-        return null;
-    }
-
-    private static int score(char[][] grid) {
+    private static int score(Grid grid) {
         var score = 0;
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                if (grid[i][j] == LEFT_BOX || grid[i][j] == BOX) {
+        for (var i = 0; i < grid.rows(); i++) {
+            for (var j = 0; j < grid.cols(); j++) {
+                if (grid.get(i, j) == LEFT_BOX || grid.get(i, j) == BOX) {
                     score += 100 * i + j;
                 }
             }
@@ -265,25 +265,25 @@ public class Day15 {
         return score;
     }
 
-    private static void print(char[][] grid, Character move) {
+    private static void print(Grid grid, Character move) {
         System.out.println("Move: " + move);
 
         System.out.print("  ");
-        for (var i = 0; i < grid[0].length; i++) {
+        for (var i = 0; i < grid.cols(); i++) {
             if (i % 10 == 0) {
                 System.out.print(String.format("%02d        ", i));
             }
         }
         System.out.println();
-        for (var i = 0; i < grid.length; i++) {
+        for (var i = 0; i < grid.rows(); i++) {
             System.out.print(String.format("%02d ", i));
-            for (var j = 0; j < grid[i].length; j++) {
-                System.out.print(grid[i][j]);
+            for (var j = 0; j < grid.cols(); j++) {
+                System.out.print((char) grid.get(i, j));
             }
             System.out.println();
         }
         System.out.println();
     }
 
-    private record Coord(int row, int col) {}
+    record Warehouse(Grid grid, List<Character> moves) {}
 }
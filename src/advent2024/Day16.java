@@ -1,13 +1,9 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.PriorityQueue;
-import java.util.Set;
 
 /**
  * You're given a grid.
@@ -21,15 +17,17 @@ import java.util.Set;
  *
  * <p>Solution: Dijkstra's Algorithm.
  * The state to keep track of is the current cell, the direction, the score, and the cells visited.
+ * The best score for each cell and direction is keyed by {@code cell * 4 + dir}.
+ * One search answers both parts, so parsing the input searches it and both parts read the {@link Result}, which puts
+ * the cost of the search in the parse phase.
  */
-public class Day16 {
+public class Day16 implements Solver<Day16.Result> {
+
+    private static final Metrics.Counter PUSHES = Metrics.counter("Day16.queue.pushes");
+    private static final Metrics.Counter POPS = Metrics.counter("Day16.queue.pops");
 
     public static void main(String[] args) throws IOException {
-        var input = Files.readAllLines(Path.of("resources/day16"));
-        var grid = new char[input.size()][];
-        for (var i = 0; i < grid.length; i++) {
-            grid[i] = input.get(i).toCharArray();
-        }
+        var grid = parseInput(ByteCursor.map(Path.of("resources/day16")));
 
         var result = execute(grid);
 
@@ -40,30 +38,57 @@ public class Day16 {
         System.out.println("Solution 2: " + result.path.size());
     }
 
-    private static Result execute(char[][] grid) {
+    @Override
+    public Result parse(String input) {
+        return execute(parseInput(ByteCursor.of(input)));
+    }
+
+    @Override
+    public Result parse(ByteCursor input) {
+        return execute(parseInput(input));
+    }
+
+    @Override
+    public Object part1(Result input) {
+        return input.score;
+    }
+
+    @Override
+    public Object part2(Result input) {
+        return input.path.size();
+    }
+
+    static Grid parseInput(ByteCursor input) {
+        return Grid.parse(input);
+    }
+
+    static Result execute(Grid grid) {
         var minScore = Integer.MAX_VALUE;
-        var minPath = new HashSet<Cell>();
-        var visited = new HashMap<State, Integer>();
+        var minPath = new LongSet();
+        var visited = new LongIntMap(4 * grid.size());
 
         // start from the 'S' facing East
         var queue = new PriorityQueue<>(Comparator.comparingInt(FullState::score));
-        queue.add(new FullState(new State(find(grid, 'S'), 0, 1), 0, new HashSet<>()));
+        queue.add(new FullState(new State(grid.find((byte) 'S'), Grid.RIGHT), 0, new LongSet()));
+        PUSHES.increment();
 
         while (!queue.isEmpty()) {
             var fullState = queue.remove();
+            POPS.increment();
             var state = fullState.state;
             var cell = state.cell;
             var score = fullState.score;
 
-            if (isValid(grid, cell) && (!visited.containsKey(state) || score <= visited.get(state))) {
-                visited.put(state, score);
+            var key = cell * 4 + state.dir;
+            if (isValid(grid, cell) && score <= visited.get(key, Integer.MAX_VALUE)) {
+                visited.put(key, score);
                 var path = fullState.path;
                 if (!path.contains(cell)) {
-                    path = new HashSet<>(path);
+                    path = new LongSet(path);
                     path.add(cell);
                 }
 
-                if (grid[cell.row][cell.col] == 'E') {
+                if (grid.get(cell) == 'E') {
                     // made it to the end
                     if (score < minScore) {
                         minScore = score;
@@ -74,43 +99,29 @@ public class Day16 {
                     }
                 } else {
                     // move forward
-                    queue.add(new FullState(new State(
-                            new Cell(cell.row + state.deltaRow, cell.col + state.deltaCol),
-                            state.deltaRow, state.deltaCol), score + 1, path));
-                    if (state.deltaRow == 0) {
+                    queue.add(new FullState(new State(cell + grid.offset(state.dir), state.dir), score + 1, path));
+                    if (state.dir == Grid.RIGHT || state.dir == Grid.LEFT) {
                         // was going east or west, turn north and south
-                        queue.add(new FullState(new State(cell, -1, 0), score + 1000, path));
-                        queue.add(new FullState(new State(cell, 1, 0), score + 1000, path));
+                        queue.add(new FullState(new State(cell, Grid.UP), score + 1000, path));
+                        queue.add(new FullState(new State(cell, Grid.DOWN), score + 1000, path));
                     } else {
                         // was going north or south, turn east and west
-                        queue.add(new FullState(new State(cell, 0, -1), score + 1000, path));
-                        queue.add(new FullState(new State(cell, 0, 1), score + 1000, path));
+                        queue.add(new FullState(new State(cell, Grid.LEFT), score + 1000, path));
+                        queue.add(new FullState(new State(cell, Grid.RIGHT), score + 1000, path));
                     }
+                    PUSHES.add(3);
                 }
             }
         }
         return new Result(minScore, minPath);
     }
 
-    private static boolean isValid(char[][] grid, Cell cell) {
-        return cell.row >= 0 && cell.row < grid.length
-                && cell.col >= 0 && cell.col < grid[cell.row].length
-                && grid[cell.row][cell.col] != '#';
-    }
-
-    private static Cell find(char[][] grid, char c) {
-        for (var i = 0 ; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                if (grid[i][j] == c) {
-                    return new Cell(i, j);
-                }
-            }
-        }
-        return null;
+    private static boolean isValid(Grid grid, int cell) {
+        var c = grid.get(cell);
+        return c != Grid.BORDER && c != '#';
     }
 
-    private record Cell(int row, int col) {}
-    private record State(Cell cell, int deltaRow, int deltaCol) {}
-    private record FullState(State state, int score, Set<Cell> path) {}
-    private record Result(int score, Set<Cell> path) {}
+    private record State(int cell, int dir) {}
+    private record FullState(State state, int score, LongSet path) {}
+    record Result(int score, LongSet path) {}
 }
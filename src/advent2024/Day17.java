@@ -11,23 +11,45 @@ import java.util.function.Function;
 /**
  *
  */
-public class Day17 {
+public class Day17 implements Solver<Day17.Computer> {
 
     public static void main(String[] args) throws IOException {
-        var input = Files.readAllLines(Path.of("resources/day17"));
-        Function<String, String> fn = str -> str.split(":")[1].strip();
-        var registers = new long[] {
-                Long.parseLong(fn.apply(input.get(0))),
-                Long.parseLong(fn.apply(input.get(1))),
-                Long.parseLong(fn.apply(input.get(2)))
-        };
-        var program = Arrays.stream(fn.apply(input.get(4)).split(",")).mapToInt(Integer::parseInt).toArray();
+        var computer = parseInput(Files.readString(Path.of("resources/day17")));
 
         // Solution 1: 5,1,3,4,3,7,2,1,7
-        var output = runProgram(program, registers);
+        var output = runProgram(computer.program, computer.registers);
         System.out.println("Solution 1: " + String.join(",", output.stream().map(Object::toString).toList()));
     }
 
+    @Override
+    public Computer parse(String input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Computer input) {
+        var output = runProgram(input.program, input.registers.clone());
+        return String.join(",", output.stream().map(Object::toString).toList());
+    }
+
+    @Override
+    public Object part2(Computer input) {
+        // part 2 is not solved
+        return null;
+    }
+
+    static Computer parseInput(String input) {
+        var lines = input.lines().toList();
+        Function<String, String> fn = str -> str.split(":")[1].strip();
+        var registers = new long[] {
+                Long.parseLong(fn.apply(lines.get(0))),
+                Long.parseLong(fn.apply(lines.get(1))),
+                Long.parseLong(fn.apply(lines.get(2)))
+        };
+        var program = Arrays.stream(fn.apply(lines.get(4)).split(",")).mapToInt(Integer::parseInt).toArray();
+        return new Computer(registers, program);
+    }
+
     private static int findRegA(int[] program) {
         // 2,4, 1,3, 7,5, 1,5, 0,3, 4,2, 5,5, 3,0
         // 2,4 regB = regA % 8
@@ -86,7 +108,7 @@ public class Day17 {
         // register A 0 on the last one
     }
 
-    private static List<Integer> runProgram(int[] program, long[] registers) {
+    static List<Integer> runProgram(int[] program, long[] registers) {
         var output = new ArrayList<Integer>();
         var instr = 0;
         while (instr < program.length) {
@@ -124,4 +146,6 @@ public class Day17 {
             default -> throw new IllegalArgumentException();
         };
     }
+
+    record Computer(long[] registers, int[] program) {}
 }
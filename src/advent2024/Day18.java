@@ -1,11 +1,8 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
 
@@ -18,16 +15,19 @@ import java.util.PriorityQueue;
  *
  * <p>Part 2: Find the point in the sequence where the grid goes from finishable to unfinishable.
  * Solution: Binary search and Dijkstra's algorithm.
+ *
+ * <p>Cells are keyed by {@code row * (SIZE + 1) + col} in primitive sets and maps.
  */
-public class Day18 {
+public class Day18 implements Solver<List<Day18.Coord>> {
 
     private static final int SIZE = 70;
     private static final int PART1_LENGTH = 1024;
 
+    private static final Metrics.Counter PUSHES = Metrics.counter("Day18.queue.pushes");
+    private static final Metrics.Counter POPS = Metrics.counter("Day18.queue.pops");
+
     public static void main(String[] args) throws IOException {
-        var input = Files.readAllLines(Path.of("resources/day18"));
-        var coords = input.stream().map(x -> new Coord(
-                Integer.parseInt(x.split(",")[1]), Integer.parseInt(x.split(",")[0]))).toList();
+        var coords = parseInput(ByteCursor.map(Path.of("resources/day18")));
 
         var minSteps = doPart1(coords);
         System.out.println("Solution 1: " + minSteps);
@@ -37,32 +37,63 @@ public class Day18 {
         System.out.println("Solution 2: " + lastBlock.col + "," + lastBlock.row);
     }
 
-    private static int doPart1(List<Coord> coords) {
-        var blocked = new HashSet<Coord>();
+    @Override
+    public List<Coord> parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public List<Coord> parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(List<Coord> input) {
+        return doPart1(input);
+    }
+
+    @Override
+    public Object part2(List<Coord> input) {
+        var lastBlock = doPart2(input);
+        return lastBlock.col + "," + lastBlock.row;
+    }
+
+    static List<Coord> parseInput(ByteCursor input) {
+        var coords = new Coord[input.countLines()];
+        for (var i = 0; i < coords.length; i++) {
+            var col = input.nextInt();
+            coords[i] = new Coord(input.nextInt(), col);
+        }
+        return List.of(coords);
+    }
+
+    static int doPart1(List<Coord> coords) {
+        var blocked = new LongSet(PART1_LENGTH);
         for (var i = 0; i < PART1_LENGTH; i++) {
-            blocked.add(coords.get(i));
+            blocked.add(key(coords.get(i)));
         }
 
         var minSteps = dijkstras(blocked);
-        return minSteps.get(new Coord(SIZE, SIZE));
+        return minSteps.get(key(SIZE, SIZE), -1);
     }
 
-    private static Coord doPart2(List<Coord> coords) {
+    static Coord doPart2(List<Coord> coords) {
         var left = PART1_LENGTH;
         var right = coords.size() - 1;
         Coord minUnfinished = null;
+        var blocked = new LongSet(coords.size());
 
         // binary search
         while (left <= right) {
             var mid = (left + right) / 2;
 
-            var blocked = new HashSet<Coord>();
+            blocked.clear();
             for (var i = 0; i < mid; i++) {
-                blocked.add(coords.get(i));
+                blocked.add(key(coords.get(i)));
             }
 
             var minSteps = dijkstras(blocked);
-            if (minSteps.get(new Coord(SIZE, SIZE)) == null) {
+            if (minSteps.get(key(SIZE, SIZE), -1) < 0) {
                 // did not finish the path
                 right = mid - 1;
                 minUnfinished = coords.get(mid - 1);
@@ -75,28 +106,41 @@ public class Day18 {
         return minUnfinished;
     }
 
-    private static HashMap<Coord, Integer> dijkstras(HashSet<Coord> blocked) {
-        var minSteps = new HashMap<Coord, Integer>();
+    private static LongIntMap dijkstras(LongSet blocked) {
+        var minSteps = new LongIntMap((SIZE + 1) * (SIZE + 1));
         var queue = new PriorityQueue<State>(Comparator.comparingInt(s -> s.steps));
         queue.add(new State(new Coord(0, 0), 0));
+        PUSHES.increment();
         while (!queue.isEmpty()) {
             var state = queue.remove();
+            POPS.increment();
             var row = state.coord.row;
             var col = state.coord.col;
             var steps = state.steps;
-            if (!blocked.contains(state.coord)
-                    && row >= 0 && row <= SIZE && col >= 0 && col <= SIZE
-                    && steps < minSteps.getOrDefault(state.coord, Integer.MAX_VALUE)) {
-                minSteps.put(state.coord, steps);
+            if (row < 0 || row > SIZE || col < 0 || col > SIZE) {
+                continue;
+            }
+            var key = key(row, col);
+            if (!blocked.contains(key) && steps < minSteps.get(key, Integer.MAX_VALUE)) {
+                minSteps.put(key, steps);
                 queue.add(new State(new Coord(row, col - 1), steps + 1));
                 queue.add(new State(new Coord(row, col + 1), steps + 1));
                 queue.add(new State(new Coord(row - 1, col), steps + 1));
                 queue.add(new State(new Coord(row + 1, col), steps + 1));
+                PUSHES.add(4);
             }
         }
         return minSteps;
     }
 
-    private record Coord(int row, int col) {}
+    private static int key(Coord coord) {
+        return key(coord.row, coord.col);
+    }
+
+    private static int key(int row, int col) {
+        return row * (SIZE + 1) + col;
+    }
+
+    record Coord(int row, int col) {}
     private record State(Coord coord, int steps) {}
 }
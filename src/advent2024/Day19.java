@@ -25,28 +25,51 @@ import java.util.Set;
  * A valid combination is recorded when the Trie is terminal and there are no more characters in the string left to
  * process.
  */
-public class Day19 {
+public class Day19 implements Solver<Day19.Onsen> {
+
+    private static final Metrics.Counter MEMO_HITS = Metrics.counter("Day19.memo.hits");
+    private static final Metrics.Counter MEMO_MISSES = Metrics.counter("Day19.memo.misses");
 
     public static void main(String[] args) throws IOException {
-        var input = Files.readAllLines(Path.of("resources/day19"));
-        var towels = input.get(0).split(", ");
-        var patterns = input.subList(2, input.size());
+        var onsen = parseInput(Files.readString(Path.of("resources/day19")));
 
         // Solution 1: 327
-        var numOk = doPart1(towels, patterns);
+        var numOk = doPart1(onsen.towels, onsen.patterns);
         System.out.println("Solution 1: " + numOk);
 
         // Solution 2: 772696486795255
-        var nPatterns = doPart2(towels, patterns);
+        var nPatterns = doPart2(onsen.towels, onsen.patterns);
         System.out.println("Solution 2: " + nPatterns);
     }
 
-    private static long doPart1(String[] towels, List<String> patterns) {
+    @Override
+    public Onsen parse(String input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Onsen input) {
+        return doPart1(input.towels, input.patterns);
+    }
+
+    @Override
+    public Object part2(Onsen input) {
+        return doPart2(input.towels, input.patterns);
+    }
+
+    static Onsen parseInput(String input) {
+        var lines = input.lines().toList();
+        var towels = lines.get(0).split(", ");
+        var patterns = lines.subList(2, lines.size());
+        return new Onsen(towels, patterns);
+    }
+
+    static long doPart1(String[] towels, List<String> patterns) {
         var root = buildTrie(towels);
         return patterns.stream().mapToLong(p -> search(root, root.getChild(p), p, new HashMap<>()) > 0 ? 1 : 0).sum();
     }
 
-    private static long doPart2(String[] towels, List<String> patterns) {
+    static long doPart2(String[] towels, List<String> patterns) {
         var root = buildTrie(towels);
         return patterns.stream().mapToLong(p -> search(root, root.getChild(p), p, new HashMap<>())).sum();
     }
@@ -66,8 +89,10 @@ public class Day19 {
         if (curr.terminal) {
             // by using terminal we don't need to keep track of so much state in our memo
             if (memo.containsKey(remaining)) {
+                MEMO_HITS.increment();
                 res += memo.get(remaining);
             } else {
+                MEMO_MISSES.increment();
                 // navigate from the root again, new search
                 var rootRes = search(root, root.getChild(remaining), remaining, memo);
                 memo.put(remaining, rootRes);
@@ -85,6 +110,8 @@ public class Day19 {
         return trie;
     }
 
+    record Onsen(String[] towels, List<String> patterns) {}
+
     private static class Trie {
 
         final Map<Character, Trie> children;
@@ -1,30 +1,17 @@
 package advent2024;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  *
  */
-public class Day20 {
+public class Day20 implements Solver<Grid> {
 
-    private static final Coord[] DIRS = new Coord[] {
-            new Coord(-1, 0),
-            new Coord(1, 0),
-            new Coord(0, -1),
-            new Coord(0, 1),
-    };
+    private static final Metrics.Counter STATES = Metrics.counter("Day20.states");
 
     public static void main(String[] args) throws IOException {
-        var input = Files.readAllLines(Path.of("resources/day20"));
-        var grid = new char[input.size()][];
-        for (var i = 0; i < grid.length; i++) {
-            grid[i] = input.get(i).toCharArray();
-        }
+        var grid = parseInput(ByteCursor.map(Path.of("resources/day20")));
 
         // Solution 1: 1406
         var numAlternatives = execute(grid, 2);
@@ -36,7 +23,31 @@ public class Day20 {
         System.out.println("Solution 2: " + numAlternatives);
     }
 
-    private static long execute(char[][] grid, int skips) {
+    @Override
+    public Grid parse(String input) {
+        return parseInput(ByteCursor.of(input));
+    }
+
+    @Override
+    public Grid parse(ByteCursor input) {
+        return parseInput(input);
+    }
+
+    @Override
+    public Object part1(Grid input) {
+        return execute(input, 2);
+    }
+
+    @Override
+    public Object part2(Grid input) {
+        return execute(input, 20);
+    }
+
+    static Grid parseInput(ByteCursor input) {
+        return Grid.parse(input);
+    }
+
+    static long execute(Grid grid, int skips) {
         var curr = buildGraph(grid, getStart(grid), skips, 72);
         var alternatives = 0;
         while (curr != null) {
@@ -46,41 +57,46 @@ public class Day20 {
         return alternatives;
     }
 
-    private static Node buildGraph(char[][] grid, Coord start, int skips, int target) {
+    private static Node buildGraph(Grid grid, int start, int skips, int target) {
+        // up, down, left, right
+        var dirs = new int[] {
+                grid.offset(Grid.UP), grid.offset(Grid.DOWN), grid.offset(Grid.LEFT), grid.offset(Grid.RIGHT) };
+
         // build normal path
         var index = 0;
         var root = new Node(index++, start);
-        var nodes = new HashMap<Coord, Node>();
-        nodes.put(root.coord, root);
+        var nodes = new Node[grid.size()];
+        nodes[root.cell] = root;
 
         var curr = root;
         Node prev = null;
-        while (grid[curr.coord.row][curr.coord.col] != 'E') {
-            for (var dir : DIRS) {
-                var nextCoord = new Coord(curr.coord.row + dir.row, curr.coord.col + dir.col);
-                if (isValid(grid, nextCoord)
-                        && grid[nextCoord.row][nextCoord.col] != '#'          // not a wall
-                        && (prev == null || !prev.coord.equals(nextCoord))) { // not back the way we came
+        while (grid.get(curr.cell) != 'E') {
+            for (var dir : dirs) {
+                var nextCell = curr.cell + dir;
+                if (grid.get(nextCell) != Grid.BORDER
+                        && grid.get(nextCell) != '#'                      // not a wall
+                        && (prev == null || prev.cell != nextCell)) {     // not back the way we came
                     if (prev != null) {
                         // link prev -> curr if not the root
                         prev.next = curr;
                     }
                     prev = curr;
-                    curr = new Node(index++, nextCoord);
-                    nodes.put(curr.coord, curr);
+                    curr = new Node(index++, nextCell);
+                    nodes[curr.cell] = curr;
                 }
             }
         }
 
         // step through all cells in the path to find alternative paths through "cheats"
         curr = root;
+        var visited = new LongSet();
         while (curr != null) {
-            for (var dir : DIRS) {
-                var next = new Coord(curr.coord.row + dir.row, curr.coord.col + dir.col);
-                var visited = new HashSet<State>();
-                if (isValid(grid, next) && grid[next.row][next.col] == '#') {
+            for (var dir : dirs) {
+                var next = curr.cell + dir;
+                visited.clear();
+                if (grid.get(next) == '#') {
                     // start our "cheat"
-                    findAlts(grid, skips - 1, curr, next, nodes, skips - 1, visited, target);
+                    findAlts(grid, dirs, skips - 1, curr, next, nodes, skips - 1, visited, target);
                 }
             }
             curr = curr.next;
@@ -89,21 +105,21 @@ public class Day20 {
     }
 
     private static void findAlts(
-            char[][] grid, int maxSteps,
-            Node start, Coord curr, HashMap<Coord, Node> nodes, int remainingSteps,
-            Set<State> visited, int target) {
-        var state = new State(curr, remainingSteps);
-        if (remainingSteps >= 0 && !visited.contains(state)) {
-            visited.add(state);
-            if (grid[curr.row][curr.col] == '#') {
-                for (var dir : DIRS) {
-                    var next = new Coord(curr.row + dir.row, curr.col + dir.col);
-                    if (isValid(grid, next)) {
-                        findAlts(grid, maxSteps, start, next, nodes, remainingSteps - 1, visited, target);
+            Grid grid, int[] dirs, int maxSteps,
+            Node start, int curr, Node[] nodes, int remainingSteps,
+            LongSet visited, int target) {
+        // the state is the cell and the number of remaining steps
+        if (remainingSteps >= 0 && visited.add((long) curr << 32 | remainingSteps)) {
+            STATES.increment();
+            if (grid.get(curr) == '#') {
+                for (var dir : dirs) {
+                    var next = curr + dir;
+                    if (grid.get(next) != Grid.BORDER) {
+                        findAlts(grid, dirs, maxSteps, start, next, nodes, remainingSteps - 1, visited, target);
                     }
                 }
             } else  {
-                var currNode = nodes.get(curr);
+                var currNode = nodes[curr];
                 if (currNode != null) {
                     var saved = currNode.index - start.index - (maxSteps - remainingSteps);
                     if (saved >= target) {
@@ -114,35 +130,25 @@ public class Day20 {
         }
     }
 
-    private static boolean isValid(char[][] grid, Coord next) {
-        return next.row >= 0 && next.row < grid.length && next.col >= 0 && next.col < grid[next.row].length;
-    }
-
-    private static Coord getStart(char[][] grid) {
-        for (var i = 0; i < grid.length; i++) {
-            for (var j = 0; j < grid[i].length; j++) {
-                if (grid[i][j] == 'S') {
-                    return new Coord(i, j);
-                }
-            }
+    private static int getStart(Grid grid) {
+        var start = grid.find((byte) 'S');
+        if (start < 0) {
+            throw new IllegalArgumentException();
         }
-        throw new IllegalArgumentException();
+        return start;
     }
 
-    private record State(Coord curr, int remaining) {}
-    private record Coord(int row, int col) {}
-
     private static class Node {
 
         final int index;
-        final Coord coord;
-        final Set<Coord> alternatives;
+        final int cell;
+        final LongSet alternatives;
         Node next;
 
-        private Node(int index, Coord coord) {
+        private Node(int index, int cell) {
             this.index = index;
-            this.coord = coord;
-            alternatives = new HashSet<>();
+            this.cell = cell;
+            alternatives = new LongSet();
         }
     }
 }
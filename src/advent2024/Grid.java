@@ -0,0 +1,221 @@
+package advent2024;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A 2-D grid of bytes stored in a single flat array, row by row, surrounded by a one cell border of {@link #BORDER}
+ * sentinels.
+ *
+ * <p>A cell is identified by its index in the flat array.
+ * The neighbour of a cell is the cell index plus a direction offset, e.g., {@code cell + grid.offset(Grid.UP)}.
+ * The neighbours of every cell inside the grid are always valid indexes, and the border cells never equal a puzzle
+ * character, so walks stop at the edge of the grid without bounds checks.
+ * Walks that can jump more than one cell past the edge must check {@link #inBounds(int, int)} instead.
+ *
+ * <p>Compared to a {@code char[][]}, cells are half the size and neighbours in the rows above and below are a fixed
+ * distance away in the same array.
+ */
+public final class Grid {
+
+    public static final byte BORDER = 0;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Directions, clockwise, such that turning right is {@code (dir + 1) % 4} and turning left is
+     * {@code (dir + 3) % 4}.
+     */
+    public static final int UP = 0;
+    public static final int RIGHT = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 3;
+
+    private final byte[] cells;
+    private final int rows;
+    private final int cols;
+    private final int stride;
+    private final int[] directions;
+    private final int[] diagonals;
+    private final int[] neighbours;
+
+    /**
+     * Creates a grid with every cell set to {@code fill}.
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @param fill the value of every cell
+     */
+    public Grid(int rows, int cols, byte fill) {
+        this(rows, cols);
+        for (var row = 0; row < rows; row++) {
+            Arrays.fill(cells, index(row, 0), index(row, cols), fill);
+        }
+    }
+
+    private Grid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        stride = cols + 2;
+        cells = new byte[(rows + 2) * stride];
+        directions = new int[] { -stride, 1, stride, -1 };
+        diagonals = new int[] { -stride - 1, -stride + 1, stride + 1, stride - 1 };
+        neighbours = new int[] { -stride, -stride + 1, 1, stride + 1, stride, stride - 1, -1, -stride - 1 };
+    }
+
+    private Grid(Grid grid) {
+        rows = grid.rows;
+        cols = grid.cols;
+        stride = grid.stride;
+        cells = grid.cells.clone();
+        directions = grid.directions;
+        diagonals = grid.diagonals;
+        neighbours = grid.neighbours;
+    }
+
+    /**
+     * Parses lines of the input into a grid, up to a blank line or the end of the input.
+     * The cursor is left at the start of the line after the blank line.
+     *
+     * @param input the input
+     * @return the grid
+     */
+    public static Grid parse(ByteCursor input) {
+        var start = input.position();
+        var cols = input.lineLength();
+        var rows = 0;
+        while (input.hasRemaining() && !input.isLineEnd()) {
+            rows++;
+            input.nextLine();
+        }
+
+        var grid = new Grid(rows, cols);
+        input.position(start);
+        for (var row = 0; row < rows; row++) {
+            for (var col = 0; col < cols; col++) {
+                grid.cells[grid.index(row, col)] = input.get(input.position() + col);
+            }
+            input.nextLine();
+        }
+        input.nextLine();
+        return grid;
+    }
+
+    public Grid copy() {
+        return new Grid(this);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int index(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    public int row(int index) {
+        return index / stride - 1;
+    }
+
+    public int col(int index) {
+        return index % stride - 1;
+    }
+
+    /**
+     * Returns the offset to the neighbouring cell in a direction.
+     *
+     * @param dir {@link #UP}, {@link #RIGHT}, {@link #DOWN}, or {@link #LEFT}
+     * @return the offset
+     */
+    public int offset(int dir) {
+        return directions[dir];
+    }
+
+    /**
+     * Returns the offsets to the neighbouring cells in the four directions, clockwise from {@link #UP}.
+     * The array is shared and must not be modified.
+     *
+     * @return the offsets
+     */
+    public int[] directions() {
+        return directions;
+    }
+
+    /**
+     * Returns the offsets to the diagonal neighbouring cells, clockwise from up-left.
+     * The array is shared and must not be modified.
+     *
+     * @return the offsets
+     */
+    public int[] diagonals() {
+        return diagonals;
+    }
+
+    /**
+     * Returns the offsets to all eight neighbouring cells, clockwise from {@link #UP}.
+     * The array is shared and must not be modified.
+     *
+     * @return the offsets
+     */
+    public int[] neighbours() {
+        return neighbours;
+    }
+
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    public byte get(int row, int col) {
+        return cells[index(row, col)];
+    }
+
+    /**
+     * Returns eight cells from an index, the first in the lowest byte, for searching a word of cells at a time.
+     * The cells may run past the end of the row into the border and the next row.
+     *
+     * @param index the index of the first cell, at most {@code size() - 8}
+     * @return the cells
+     */
+    public long getLong(int index) {
+        return (long) LONGS.get(cells, index);
+    }
+
+    public void set(int index, byte value) {
+        cells[index] = value;
+    }
+
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * Returns the number of indexes in the flat array, border included.
+     * Useful for sizing arrays that are indexed by cell.
+     *
+     * @return the size
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    /**
+     * Finds the first cell with a value, row by row.
+     *
+     * @param value the value
+     * @return the index of the cell, or -1 if not found
+     */
+    public int find(byte value) {
+        for (var i = stride; i < cells.length - stride; i++) {
+            if (cells[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,439 @@
+package advent2024;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A set of instructions, {@code name(arg,...)} with decimal arguments, compiled into a DFA that finds them in
+ * corrupted input.
+ *
+ * <p>The DFA is built once, by the subset construction of an NFA that can start an instruction at every byte, into
+ * a transition table indexed by state and byte.
+ * Scanning is one table lookup per byte, of the row of the next state with a flag for whether it has an action, so
+ * the scanner never backtracks and adding instructions only adds states, not work per byte.
+ * The input is copied into a small array a block at a time, which is cheaper than reading a buffer a byte at a time.
+ *
+ * <p>Most bytes of corrupted input are noise that leaves the DFA in its start state.
+ * In the start state the scanner skips to the next byte that starts a name, comparing 8 bytes at a time with each
+ * first byte of a name in a {@code long} (SWAR), and only steps the DFA from there.
+ * Actions accumulate the digits of the arguments and report an instruction when its ')' is read, after which the
+ * scan starts over, so instructions do not overlap.
+ *
+ * <p>Names cannot contain digits, {@code '('}, {@code ','}, or {@code ')'}, so at most one instruction at a time is
+ * reading arguments, and no name can be a suffix of another, so at most one instruction ends at a byte.
+ */
+public final class InstructionSet {
+
+    private static final int NONE = -1;
+
+    // actions, in the low bits, with the argument or instruction in the high bits
+    private static final int ARGUMENT_START = 1;
+    private static final int ARGUMENT_DIGIT = 2;
+    private static final int INSTRUCTION = 3;
+    private static final int ACTION_BITS = 2;
+    private static final int ACTION_MASK = (1 << ACTION_BITS) - 1;
+
+    // table entries are the index of the row of the next state, negative if entering it has an action
+    private static final int STATE_MASK = Integer.MAX_VALUE;
+    private static final int BLOCK = 1 << 13;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LOW_BITS = 0x7f7f7f7f7f7f7f7fL;
+    private static final long ONES = 0x0101010101010101L;
+
+    /**
+     * The most first bytes of names that are compared a word at a time; with more, every byte is stepped.
+     */
+    private static final int MAX_FIRST_BYTES = 4;
+
+    private final int[] table;
+    private final int[] actions;
+    // each first byte of a name in every byte of a word
+    private final long[] firstBytes;
+    private final int maxArguments;
+    private final int maxLength;
+
+    private InstructionSet(int[] table, int[] actions, long[] firstBytes, int maxArguments, int maxLength) {
+        this.table = table;
+        this.actions = actions;
+        this.firstBytes = firstBytes;
+        this.maxArguments = maxArguments;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Compiles instructions into a DFA.
+     * Instructions are reported by their index in the arguments.
+     *
+     * @param instructions the instructions
+     * @return the instruction set
+     * @throws IllegalArgumentException if a name is a suffix of another
+     */
+    public static InstructionSet compile(Instruction... instructions) {
+        for (var i = 0; i < instructions.length; i++) {
+            for (var j = 0; j < instructions.length; j++) {
+                if (i != j && instructions[i].name.endsWith(instructions[j].name)) {
+                    throw new IllegalArgumentException(
+                            "name is a suffix of another: " + instructions[j].name + ", " + instructions[i].name);
+                }
+            }
+        }
+        var nfa = new Nfa(instructions);
+
+        // states are a set of NFA nodes and the instruction that ended entering it; state 0 is the start
+        var states = new HashMap<State, Integer>();
+        var pending = new ArrayDeque<State>();
+        var table = new IntList();
+        var actions = new IntList();
+        var start = new State(new int[0], NONE);
+        states.put(start, 0);
+        pending.add(start);
+        actions.add(0);
+        while (!pending.isEmpty()) {
+            var state = pending.remove();
+            var id = states.get(state);
+            for (var b = 0; b < 256; b++) {
+                var next = nfa.next(state.nodes, (byte) b);
+                var target = states.get(next);
+                if (target == null) {
+                    target = states.size();
+                    states.put(next, target);
+                    pending.add(next);
+                    actions.add(nfa.action(next));
+                }
+                table.set(id << 8 | b, target);
+            }
+        }
+
+        var first = new TreeSet<Integer>();
+        var maxArguments = 0;
+        var maxLength = 0;
+        for (var instruction : instructions) {
+            first.add((int) instruction.name.charAt(0));
+            maxArguments = Math.max(maxArguments, instruction.arguments);
+            maxLength = Math.max(maxLength, instruction.maxLength());
+        }
+        var entries = table.toArray();
+        var actionArray = actions.toArray();
+        for (var i = 0; i < entries.length; i++) {
+            entries[i] = entries[i] << 8 | (actionArray[entries[i]] != 0 ? ~STATE_MASK : 0);
+        }
+        var firstBytes = first.size() <= MAX_FIRST_BYTES
+                ? first.stream().mapToLong(b -> b * ONES).toArray() : null;
+        return new InstructionSet(entries, actionArray, firstBytes, maxArguments, maxLength);
+    }
+
+    /**
+     * Returns the length of the longest instruction.
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Reports the instructions that end in a range of the input, in order.
+     * The scan starts up to {@link #maxLength()} - 1 bytes before the range, so that instructions that start
+     * before the range are found, and those bytes are scanned as they would be if the scan started earlier.
+     *
+     * @param input the input
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @param handler receives each instruction
+     */
+    public void scan(ByteCursor input, int from, int to, Handler handler) {
+        var arguments = new int[maxArguments];
+        var block = new byte[BLOCK];
+        var entry = 0;
+        for (var start = Math.max(0, from - maxLength + 1); start < to; start += BLOCK) {
+            var length = Math.min(BLOCK, to - start);
+            input.get(start, block, 0, length);
+            entry = scan(block, length, Math.max(0, from - start), entry, arguments, handler);
+        }
+    }
+
+    /**
+     * Reports the instructions in a channel, in order, reading it to the end through a buffer.
+     * The state of the DFA, including a partly read instruction, carries over from one read to the next, so the
+     * memory used is the buffer however long the input, e.g., a pipe from another process.
+     *
+     * @param channel the channel, read to the end but not closed
+     * @param buffer the buffer, which is cleared before each read
+     * @param handler receives each instruction
+     * @param afterRead runs after the instructions that end in each read are reported
+     * @throws IOException if the channel cannot be read
+     */
+    public void scan(ReadableByteChannel channel, ByteBuffer buffer, Handler handler, Runnable afterRead)
+            throws IOException {
+        var arguments = new int[maxArguments];
+        var block = new byte[buffer.capacity()];
+        var entry = 0;
+        while (true) {
+            buffer.clear();
+            if (channel.read(buffer) < 0) {
+                return;
+            }
+            buffer.flip();
+            var length = buffer.remaining();
+            buffer.get(block, 0, length);
+            entry = scan(block, length, 0, entry, arguments, handler);
+            afterRead.run();
+        }
+    }
+
+    /**
+     * Steps the DFA over a block, reporting the instructions that end at or after an index.
+     *
+     * @return the table entry of the state after the block
+     */
+    private int scan(byte[] block, int length, int from, int entry, int[] arguments, Handler handler) {
+        var table = this.table;
+        var actions = this.actions;
+        for (var i = 0; i < length; i++) {
+            if (entry == 0 && firstBytes != null) {
+                i = skip(block, i, length);
+                if (i == length) {
+                    break;
+                }
+            }
+            var b = block[i];
+            entry = table[entry & STATE_MASK | b & 0xff];
+            if (entry < 0) {
+                var action = actions[(entry & STATE_MASK) >>> 8];
+                var value = action >>> ACTION_BITS;
+                switch (action & ACTION_MASK) {
+                    case ARGUMENT_START -> arguments[value] = b - '0';
+                    case ARGUMENT_DIGIT -> arguments[value] = 10 * arguments[value] + b - '0';
+                    default -> {
+                        if (i >= from) {
+                            handler.instruction(value, arguments);
+                        }
+                    }
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the index of the first byte from an index that is the first byte of a name, a word at a time, or the
+     * start of the last partial word.
+     */
+    private int skip(byte[] block, int i, int length) {
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            var word = (long) LONGS.get(block, i);
+            var found = 0L;
+            for (var b : firstBytes) {
+                found |= zeroBytes(word ^ b);
+            }
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Returns the high bit of each zero byte of a word, exactly, unlike the shorter test that can also set the bit of
+     * a 0x01 byte above a zero byte.
+     */
+    private static long zeroBytes(long word) {
+        return ~((word & LOW_BITS) + LOW_BITS | word | LOW_BITS);
+    }
+
+    /**
+     * An instruction: a name, then {@code '('}, the arguments separated by {@code ','}, and {@code ')'}.
+     *
+     * @param name the name
+     * @param arguments the number of arguments
+     * @param maxDigits the most digits in an argument, from 1 to 9, or 0 without arguments
+     */
+    public record Instruction(String name, int arguments, int maxDigits) {
+
+        public Instruction {
+            if (name.isEmpty() || !name.chars().allMatch(c -> c > ' ' && c < 0x7f && "0123456789(,)".indexOf(c) < 0)) {
+                throw new IllegalArgumentException("invalid name: " + name);
+            }
+            if (arguments < 0 || (arguments == 0 ? maxDigits != 0 : maxDigits < 1 || maxDigits > 9)) {
+                throw new IllegalArgumentException(
+                        "invalid arguments of " + name + ": " + arguments + " of up to " + maxDigits + " digits");
+            }
+        }
+
+        int maxLength() {
+            return name.length() + 2 + arguments * maxDigits + Math.max(0, arguments - 1);
+        }
+    }
+
+    /**
+     * Receives the instructions found by a scan.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * @param instruction the index of the instruction
+         * @param arguments the arguments of the instruction, in an array that is reused by the next instruction
+         */
+        void instruction(int instruction, int[] arguments);
+    }
+
+    /**
+     * A state of the DFA.
+     */
+    private record State(int[] nodes, int instruction) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof State s && instruction == s.instruction && Arrays.equals(nodes, s.nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(nodes) + instruction;
+        }
+    }
+
+    /**
+     * An NFA with a node for each byte of each instruction, in which every node has at most one transition on a
+     * byte, and the start, which is implicitly in every state, has a transition to the first byte of each name.
+     */
+    private static final class Nfa {
+
+        private final List<int[]> transitions = new ArrayList<>();
+        // for each node, the instruction it ends, or the argument and the digit of it that it reads
+        private final IntList ends = new IntList();
+        private final IntList arguments = new IntList();
+        private final IntList digits = new IntList();
+        private final int[][] starts = new int[256][];
+
+        Nfa(Instruction[] instructions) {
+            Arrays.setAll(starts, b -> new int[0]);
+            for (var i = 0; i < instructions.length; i++) {
+                var instruction = instructions[i];
+                var name = instruction.name.getBytes(StandardCharsets.US_ASCII);
+                var first = add(NONE, 0, NONE);
+                starts[name[0]] = Arrays.copyOf(starts[name[0]], starts[name[0]].length + 1);
+                starts[name[0]][starts[name[0]].length - 1] = first;
+                var node = first;
+                for (var k = 1; k < name.length; k++) {
+                    node = link(node, name[k], add(NONE, 0, NONE));
+                }
+                node = link(node, '(', add(NONE, 0, NONE));
+                var end = add(i, 0, NONE);
+                if (instruction.arguments == 0) {
+                    link(node, ')', end);
+                }
+                for (var a = 0; a < instruction.arguments; a++) {
+                    // the first digit follows the '(' or ',', and any digit can be followed by the ',' or ')'
+                    var last = a + 1 == instruction.arguments;
+                    var separator = last ? end : add(NONE, 0, NONE);
+                    for (var d = 1; d <= instruction.maxDigits; d++) {
+                        var digit = add(NONE, d, a);
+                        for (var c = '0'; c <= '9'; c++) {
+                            link(node, c, digit);
+                        }
+                        link(digit, last ? ')' : ',', separator);
+                        node = digit;
+                    }
+                    node = separator;
+                }
+            }
+        }
+
+        private int add(int end, int digit, int argument) {
+            var row = new int[256];
+            Arrays.fill(row, NONE);
+            transitions.add(row);
+            ends.add(end);
+            digits.add(digit);
+            arguments.add(argument);
+            return transitions.size() - 1;
+        }
+
+        private int link(int from, int b, int to) {
+            transitions.get(from)[b] = to;
+            return to;
+        }
+
+        /**
+         * Returns the state after a byte.
+         */
+        State next(int[] nodes, byte b) {
+            var next = new TreeSet<Integer>();
+            for (var node : nodes) {
+                var to = transitions.get(node)[b & 0xff];
+                if (to >= 0) {
+                    next.add(to);
+                }
+            }
+            if (b >= 0) {
+                for (var to : starts[b]) {
+                    next.add(to);
+                }
+            }
+            for (var node : next) {
+                if (ends.get(node) != NONE) {
+                    // the instruction ended, start over
+                    return new State(new int[0], ends.get(node));
+                }
+            }
+            return new State(next.stream().mapToInt(Integer::intValue).toArray(), NONE);
+        }
+
+        /**
+         * Returns the action on entering a state.
+         */
+        int action(State state) {
+            if (state.instruction != NONE) {
+                return state.instruction << ACTION_BITS | INSTRUCTION;
+            }
+            for (var node : state.nodes) {
+                if (digits.get(node) != 0) {
+                    return arguments.get(node) << ACTION_BITS
+                            | (digits.get(node) == 1 ? ARGUMENT_START : ARGUMENT_DIGIT);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * A growable list of {@code int}s.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            set(size, value);
+        }
+
+        void set(int index, int value) {
+            if (index >= values.length) {
+                values = Arrays.copyOf(values, Math.max(2 * values.length, index + 1));
+            }
+            values[index] = value;
+            size = Math.max(size, index + 1);
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package advent2024;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map of {@code long} keys to {@code int} values with linear probing.
+ *
+ * <p>Keys and values are stored unboxed in parallel arrays so a put allocates nothing, unlike a {@code HashMap} of
+ * coordinate records to {@code Integer}s.
+ * Pack multi-part keys into a {@code long}, as with {@link LongSet}.
+ * {@link Long#MIN_VALUE} cannot be a key.
+ * {@link #clear()} keeps the capacity so a map can be reused without reallocating.
+ */
+public final class LongIntMap {
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntMap() {
+        this(16);
+    }
+
+    /**
+     * Creates a map that can hold the expected number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public LongIntMap(int expectedSize) {
+        allocate(LongSet.capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[find(key)] != LongSet.EMPTY;
+    }
+
+    /**
+     * Returns the value for a key.
+     *
+     * @param key the key
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the value
+     */
+    public int get(long key, int defaultValue) {
+        var slot = find(key);
+        return keys[slot] != LongSet.EMPTY ? values[slot] : defaultValue;
+    }
+
+    public void put(long key, int value) {
+        LongSet.checkKey(key);
+        var slot = find(key);
+        values[slot] = value;
+        if (keys[slot] == LongSet.EMPTY) {
+            keys[slot] = key;
+            if (++size > (mask + 1) / 2) {
+                rehash(2 * (mask + 1));
+            }
+        }
+    }
+
+    /**
+     * Adds to the value for a key, as if the value of a key not in the map is 0.
+     *
+     * @param key the key
+     * @param delta the amount to add
+     * @return the new value
+     */
+    public int add(long key, int delta) {
+        LongSet.checkKey(key);
+        var slot = find(key);
+        if (keys[slot] != LongSet.EMPTY) {
+            return values[slot] += delta;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > (mask + 1) / 2) {
+            rehash(2 * (mask + 1));
+        }
+        return delta;
+    }
+
+    /**
+     * Removes a key, and its value, from the map.
+     * As in {@link LongSet#remove(long)}, the following entries of the probe sequence are shifted back into the gap, so
+     * removing leaves no tombstones and a map whose keys come and go does not fill up.
+     *
+     * @param key the key
+     * @return true if the key was in the map
+     */
+    public boolean remove(long key) {
+        var slot = find(key);
+        if (keys[slot] == LongSet.EMPTY) {
+            return false;
+        }
+
+        // shift the following entries in the probe sequence back so no key is unreachable
+        var gap = slot;
+        for (slot = (slot + 1) & mask; keys[slot] != LongSet.EMPTY; slot = (slot + 1) & mask) {
+            var home = LongSet.slot(keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = LongSet.EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all entries, keeping the capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, LongSet.EMPTY);
+            size = 0;
+        }
+    }
+
+    private int find(long key) {
+        var slot = LongSet.slot(key, mask);
+        for (var k = keys[slot]; k != key && k != LongSet.EMPTY; k = keys[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, LongSet.EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(capacity);
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != LongSet.EMPTY) {
+                var slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
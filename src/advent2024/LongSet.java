@@ -0,0 +1,187 @@
+package advent2024;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of {@code long} keys with linear probing.
+ *
+ * <p>Keys are stored unboxed in a single array so adding a key allocates nothing, unlike a {@code HashSet} of
+ * coordinate records.
+ * Pack multi-part keys, e.g., {@code (long) cell << 2 | dir}, into a {@code long}.
+ * {@link Long#MIN_VALUE} marks an empty slot and cannot be a key.
+ * {@link #clear()} keeps the capacity so a set can be reused without reallocating.
+ */
+public final class LongSet {
+
+    static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+
+    public LongSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates a set that can hold the expected number of keys without resizing.
+     *
+     * @param expectedSize the expected number of keys
+     */
+    public LongSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public LongSet(LongSet other) {
+        keys = other.keys.clone();
+        mask = other.mask;
+        size = other.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long key) {
+        for (var slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            var k = keys[slot];
+            // test for an empty slot first, so the empty marker itself is never found
+            if (k == EMPTY) {
+                return false;
+            } else if (k == key) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key the key
+     * @return true if the key was not already in the set
+     */
+    public boolean add(long key) {
+        checkKey(key);
+        var slot = slot(key, mask);
+        for (var k = keys[slot]; k != EMPTY; k = keys[slot]) {
+            if (k == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size > (mask + 1) / 2) {
+            rehash(2 * (mask + 1));
+        }
+        return true;
+    }
+
+    public void addAll(LongSet other) {
+        for (var key : other.keys) {
+            if (key != EMPTY) {
+                add(key);
+            }
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return true if the key was in the set
+     * @throws IllegalArgumentException if the key is {@link Long#MIN_VALUE}
+     */
+    public boolean remove(long key) {
+        checkKey(key);
+        var slot = slot(key, mask);
+        for (var k = keys[slot]; k != key; k = keys[slot]) {
+            if (k == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // shift the following keys in the probe sequence back so no key is unreachable
+        var gap = slot;
+        for (slot = (slot + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            var home = slot(keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all keys, keeping the capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the keys in an unspecified order.
+     *
+     * @return a new array of the keys
+     */
+    public long[] toArray() {
+        var array = new long[size];
+        var i = 0;
+        for (var key : keys) {
+            if (key != EMPTY) {
+                array[i++] = key;
+            }
+        }
+        return array;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        var oldKeys = keys;
+        allocate(capacity);
+        for (var key : oldKeys) {
+            if (key != EMPTY) {
+                var slot = slot(key, mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Returns the power of two capacity that holds the expected number of keys at a load factor of at most 1/2.
+     */
+    static int capacityFor(int expectedSize) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+    }
+
+    static int slot(long key, int mask) {
+        // Fibonacci hashing spreads packed keys with few significant bits across the table
+        var hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be a key");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package advent2024;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Instrumentation of the solvers: a JFR event for each parse, part 1, and part 2 phase, and named counters for the hot
+ * data structures inside the solvers (priority queue pushes and pops, memo hits and misses, states explored).
+ *
+ * <p>Phase events are recorded when a flight recording is running, e.g.,
+ * <pre>
+ * java -XX:StartFlightRecording:filename=advent.jfr -Dadvent2024.metrics=true advent2024.AllDays
+ * jfr print --events advent2024.Phase,advent2024.Counter advent.jfr
+ * </pre>
+ * Until a recording starts, by command line option or {@code jcmd JFR.start}, the flight recorder is not initialized
+ * and phases run without creating events, so JFR is never loaded (loading it adds a few hundred milliseconds).
+ *
+ * <p>Counters are enabled with {@code -Dadvent2024.metrics=true}.
+ * {@link #ENABLED} is a static final, so when it is false the JIT folds every {@link Counter#increment()} away and a
+ * disabled counter costs nothing in the hot loops.
+ * When enabled, the counts of each phase are committed as {@code advent2024.Counter} events during a recording, and
+ * {@link Runner} prints them after each input.
+ * Counters are named {@code DayNN.structure.count} and are shared by concurrent runs of the same day.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("advent2024.metrics");
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+
+    private Metrics() {}
+
+    /**
+     * Returns the counter with a name, creating it if necessary.
+     * Counters are meant to be held in static final fields of the solvers.
+     *
+     * @param name the name, starting with the day, e.g., {@code "Day16.queue.pushes"}
+     * @return the counter
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Runs a phase of a day.
+     * During a flight recording, the phase is recorded as an event along with, if counters are enabled, the counts
+     * of the day's counters during the phase.
+     *
+     * @param day the day
+     * @param phase the phase, e.g., {@code "part1"}
+     * @param body the phase
+     * @return the result of the phase
+     * @param <V> the type of the result
+     */
+    public static <V> V phase(int day, String phase, Supplier<V> body) {
+        if (!FlightRecorder.isInitialized()) {
+            return body.get();
+        }
+
+        var before = ENABLED ? counts(day) : null;
+        var event = new PhaseEvent();
+        event.begin();
+        try {
+            return body.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.day = day;
+                event.phase = phase;
+                event.commit();
+            }
+            if (ENABLED) {
+                for (var entry : counts(day).entrySet()) {
+                    var value = entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+                    var counterEvent = new CounterEvent();
+                    if (value != 0 && counterEvent.isEnabled()) {
+                        counterEvent.day = day;
+                        counterEvent.phase = phase;
+                        counterEvent.name = entry.getKey();
+                        counterEvent.value = value;
+                        counterEvent.commit();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the current counts of a day's counters, by name, in name order.
+     *
+     * @param day the day
+     * @return the counts
+     */
+    public static Map<String, Long> counts(int day) {
+        var prefix = String.format("Day%02d.", day);
+        var counts = new LinkedHashMap<String, Long>();
+        for (var counter : COUNTERS.values()) {
+            if (counter.name.startsWith(prefix)) {
+                counts.put(counter.name, counter.value());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * A count of events in a solver, e.g., priority queue pushes.
+     * Incrementing a counter is a no-op unless {@link #ENABLED}.
+     */
+    public static final class Counter {
+
+        private final String name;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            if (ENABLED) {
+                count.increment();
+            }
+        }
+
+        public void add(long n) {
+            if (ENABLED) {
+                count.add(n);
+            }
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long value() {
+            return count.sum();
+        }
+    }
+
+    @Name("advent2024.Phase")
+    @Label("Phase")
+    @Category("Advent of Code")
+    @Description("The parse, part 1, or part 2 phase of a day")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+
+        @Label("Day")
+        int day;
+
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("advent2024.Counter")
+    @Label("Counter")
+    @Category("Advent of Code")
+    @Description("The count of a solver counter during a phase")
+    @StackTrace(false)
+    static final class CounterEvent extends Event {
+
+        @Label("Day")
+        int day;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Name")
+        String name;
+
+        @Label("Value")
+        long value;
+    }
+}
@@ -0,0 +1,227 @@
+package advent2024;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+
+/**
+ * A content-addressed, on-disk cache of answers, keyed by the day, the part, the SHA-256 of the input bytes, and the
+ * solver version.
+ *
+ * <p>Each entry is a small file, named by the SHA-256 of its key, holding the answer and the time it took to solve.
+ * A hit touches the file's modification time, and when the files in the cache exceed the maximum size the least
+ * recently used files are deleted.
+ *
+ * <p>The solver version is the SHA-256 of every class file in the {@code advent2024} package, in every class
+ * directory or jar on the class path as well as the one this class is loaded from, so any rebuild that changes the
+ * code invalidates every entry, including classes compiled to a separate root, such as the incubator's
+ * {@code Day02Vector}.
+ * This is conservative, since a change to one day invalidates the others, but never returns a stale answer after a
+ * change to shared code such as {@link Grid}.
+ *
+ * <p>The cache is configured with system properties:
+ * <ul>
+ *     <li>{@code advent2024.cache}: the directory, default {@code ~/.cache/advent2024}, or {@code off}
+ *     <li>{@code advent2024.cache.size}: the maximum size in bytes, default 1 MB
+ * </ul>
+ * Errors reading or writing the cache are treated as misses; the cache never fails a solve.
+ */
+public final class ResultCache {
+
+    private static final long DEFAULT_MAX_BYTES = 1 << 20;
+
+    private final Path dir;
+    private final long maxBytes;
+    private final byte[] version;
+
+    ResultCache(Path dir, long maxBytes, byte[] version) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.version = version;
+    }
+
+    /**
+     * Opens the cache configured by the system properties.
+     *
+     * @return the cache, or null if the cache is off or the solver version cannot be determined
+     */
+    public static ResultCache open() {
+        var property = System.getProperty("advent2024.cache");
+        if ("off".equals(property)) {
+            return null;
+        }
+        var dir = property != null
+                ? Path.of(property)
+                : Path.of(System.getProperty("user.home"), ".cache", "advent2024");
+        var maxBytes = Long.getLong("advent2024.cache.size", DEFAULT_MAX_BYTES);
+        try {
+            return new ResultCache(dir, maxBytes, codeVersion());
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the SHA-256 of an input, hashed once for the keys of both parts.
+     *
+     * @param input the puzzle input
+     * @return the digest
+     */
+    public byte[] digest(ByteCursor input) {
+        var digest = sha256();
+        input.digest(digest);
+        return digest.digest();
+    }
+
+    /**
+     * Returns the key of an answer.
+     *
+     * @param day the day
+     * @param part the part, 1 or 2
+     * @param inputDigest the digest of the puzzle input, from {@link #digest(ByteCursor)}
+     * @return the key, a hex string
+     */
+    public String key(int day, int part, byte[] inputDigest) {
+        var digest = sha256();
+        digest.update(version);
+        digest.update((byte) day);
+        digest.update((byte) part);
+        digest.update(inputDigest);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns a cached answer.
+     *
+     * @param key the key
+     * @return the entry, or null if the answer is not cached
+     */
+    public Entry get(String key) {
+        var path = dir.resolve(key);
+        try {
+            var lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            if (lines.size() != 2) {
+                return null;
+            }
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            var answer = lines.get(1);
+            return new Entry(answer.startsWith("=") ? answer.substring(1) : null, Long.parseLong(lines.get(0)));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Caches an answer, evicting the least recently used answers if the cache is over its maximum size.
+     *
+     * @param key the key
+     * @param answer the answer, or null if the part is not solved
+     * @param nanos the time it took to solve
+     */
+    public void put(String key, Object answer, long nanos) {
+        if (answer != null && answer.toString().contains("\n")) {
+            // multi-line answers are not cached
+            return;
+        }
+        var content = nanos + "\n" + (answer == null ? "-" : "=" + answer) + "\n";
+        try {
+            Files.createDirectories(dir);
+            // write to a temporary file first so that concurrent runners never read a partial entry
+            var tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.writeString(tmp, content, StandardCharsets.UTF_8);
+            Files.move(tmp, dir.resolve(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evict();
+        } catch (IOException | RuntimeException e) {
+            // the answer is not cached
+        }
+    }
+
+    private void evict() throws IOException {
+        var entries = new ArrayList<Path>();
+        var total = 0L;
+        try (var files = Files.list(dir)) {
+            for (var path : (Iterable<Path>) files::iterator) {
+                entries.add(path);
+                total += Files.size(path);
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+
+        entries.sort(Comparator.comparing(ResultCache::lastModified));
+        for (var path : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            total -= Files.size(path);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Hashes the class files of this package, in name order, or the jar they are loaded from, for the location of this
+     * class and each entry of the class path in order.
+     */
+    private static byte[] codeVersion() throws IOException, URISyntaxException {
+        var locations = new LinkedHashSet<Path>();
+        var source = ResultCache.class.getProtectionDomain().getCodeSource().getLocation();
+        locations.add(Path.of(source.toURI()).normalize());
+        for (var entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                locations.add(Path.of(entry).toAbsolutePath().normalize());
+            }
+        }
+
+        var digest = sha256();
+        for (var location : locations) {
+            var classes = location.resolve("advent2024");
+            if (Files.isDirectory(classes)) {
+                try (var files = Files.list(classes)) {
+                    for (var path : files.filter(p -> p.toString().endsWith(".class")).sorted().toList()) {
+                        digest.update(path.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+                        digest.update(Files.readAllBytes(path));
+                    }
+                }
+            } else if (Files.isRegularFile(location)) {
+                digest.update(Files.readAllBytes(location));
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached answer.
+     *
+     * @param answer the answer, or null if the part is not solved
+     * @param nanos the time it took to solve, when it was cached
+     */
+    public record Entry(String answer, long nanos) {}
+}
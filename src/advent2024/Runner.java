@@ -0,0 +1,140 @@
+package advent2024;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Solves any number of inputs for any day in a single, warm JVM.
+ * Launching a JVM per input pays for startup, class loading, and JIT warm-up every time.
+ *
+ * <p>Usage:
+ * <pre>
+ * java advent2024.Runner &lt;day&gt; [file ...]
+ * java advent2024.Runner
+ * </pre>
+ * The first form solves each file (or {@code -} for stdin) for the day, defaulting to the day's puzzle input.
+ * The second form reads requests from stdin, one per line, as {@code <day> [file]}, until end of input, e.g.,
+ * {@code cat requests | java advent2024.Runner}.
+ *
+ * <p>Each input prints a line with the answers and the wall time of the parse, part 1, and part 2 phases.
+ * A failed request prints the error and the runner continues with the next request.
+ * With {@code -Dadvent2024.metrics=true}, the counts of the day's {@link Metrics} counters are printed after the
+ * answers.
+ *
+ * <p>Answers are looked up in the {@link ResultCache} before solving, and cached after, so re-running an unchanged
+ * input with unchanged code prints the cached answers, marked {@code (cached)}, with the times of the original solve.
+ * Use {@code -Dadvent2024.cache=off} to always solve.
+ */
+public class Runner {
+
+    private static final ResultCache CACHE = ResultCache.open();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            var day = Integer.parseInt(args[0]);
+            if (args.length == 1) {
+                request(day, Solvers.defaultInput(day));
+            }
+            for (var i = 1; i < args.length; i++) {
+                request(day, args[i]);
+            }
+        } else {
+            var reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var parts = line.strip().split("\\s+");
+                if (parts[0].isEmpty() || parts[0].startsWith("#")) {
+                    continue;
+                }
+                try {
+                    var day = Integer.parseInt(parts[0]);
+                    request(day, parts.length > 1 ? parts[1] : Solvers.defaultInput(day));
+                } catch (NumberFormatException e) {
+                    System.out.println("invalid request: " + line);
+                }
+            }
+        }
+    }
+
+    private static void request(int day, String file) {
+        try {
+            var input = file.equals("-") ? ByteCursor.of(System.in.readAllBytes()) : ByteCursor.map(Path.of(file));
+            var before = Metrics.counts(day);
+            System.out.println(solve(day, Solvers.get(day), input, CACHE).format(file));
+            if (Metrics.ENABLED) {
+                for (var entry : Metrics.counts(day).entrySet()) {
+                    System.out.printf("  %s = %d%n",
+                            entry.getKey(), entry.getValue() - before.getOrDefault(entry.getKey(), 0L));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.printf("Day%02d %s: failed: %s%n", day, file, e);
+        }
+    }
+
+    /**
+     * Parses the input and solves both parts, timing each phase and recording it as a {@link Metrics} phase.
+     *
+     * @param day the day
+     * @param solver the solver for the day
+     * @param input the puzzle input
+     * @return the answers and timings
+     * @param <T> the type of the parsed input
+     */
+    static <T> Run solve(int day, Solver<T> solver, ByteCursor input) {
+        return solve(day, solver, input, null);
+    }
+
+    /**
+     * Returns the cached answers for the input, or parses the input and solves both parts, timing each phase, and
+     * caches the answers.
+     *
+     * @param day the day
+     * @param solver the solver for the day
+     * @param input the puzzle input
+     * @param cache the cache, or null to always solve
+     * @return the answers and timings
+     * @param <T> the type of the parsed input
+     */
+    static <T> Run solve(int day, Solver<T> solver, ByteCursor input, ResultCache cache) {
+        String key1 = null;
+        String key2 = null;
+        if (cache != null) {
+            var digest = cache.digest(input);
+            key1 = cache.key(day, 1, digest);
+            key2 = cache.key(day, 2, digest);
+            var hit1 = cache.get(key1);
+            var hit2 = cache.get(key2);
+            if (hit1 != null && hit2 != null) {
+                return new Run(day, hit1.answer(), hit2.answer(), 0, hit1.nanos(), hit2.nanos(), true);
+            }
+        }
+
+        var start = System.nanoTime();
+        var parsed = Metrics.phase(day, "parse", () -> solver.parse(input));
+        var parseEnd = System.nanoTime();
+        var part1 = Metrics.phase(day, "part1", () -> solver.part1(parsed));
+        var part1End = System.nanoTime();
+        var part2 = Metrics.phase(day, "part2", () -> solver.part2(parsed));
+        var part2End = System.nanoTime();
+        if (cache != null) {
+            cache.put(key1, part1, part1End - parseEnd);
+            cache.put(key2, part2, part2End - part1End);
+        }
+        return new Run(day, part1, part2, parseEnd - start, part1End - parseEnd, part2End - part1End, false);
+    }
+
+    record Run(
+            int day, Object part1, Object part2, long parseNanos, long part1Nanos, long part2Nanos, boolean cached) {
+
+        String format(String file) {
+            return String.format(
+                    "Day%02d %s: part 1 = %s, part 2 = %s (%sparse %.3f ms, part 1 %.3f ms, part 2 %.3f ms)",
+                    day, file, part1, part2 == null ? "-" : part2, cached ? "cached, " : "",
+                    parseNanos / 1e6, part1Nanos / 1e6, part2Nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package advent2024;
+
+/**
+ * A solver for one day's puzzle.
+ * The input is parsed once and the parsed input is passed to both parts, part 1 first.
+ *
+ * @param <T> the type of the parsed input
+ */
+public interface Solver<T> {
+
+    /**
+     * Parses the puzzle input.
+     *
+     * @param input the puzzle input
+     * @return the parsed input
+     */
+    T parse(String input);
+
+    /**
+     * Parses the puzzle input from its bytes.
+     * Solvers that parse bytes directly override this; the default decodes the input into a string.
+     *
+     * @param input the puzzle input, at the start of the input
+     * @return the parsed input
+     */
+    default T parse(ByteCursor input) {
+        return parse(input.asString());
+    }
+
+    /**
+     * Solves part 1.
+     *
+     * @param input the parsed input
+     * @return the answer
+     */
+    Object part1(T input);
+
+    /**
+     * Solves part 2.
+     *
+     * @param input the parsed input, after it has been used by part 1
+     * @return the answer, or null if part 2 is not solved
+     */
+    Object part2(T input);
+}
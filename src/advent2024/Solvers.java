@@ -0,0 +1,51 @@
+package advent2024;
+
+import java.util.List;
+
+/**
+ * The registry of the {@link Solver} for each day.
+ */
+public final class Solvers {
+
+    private static final List<Solver<?>> SOLVERS = List.of(
+            new Day01(), new Day02(), new Day03(), new Day04(), new Day05(),
+            new Day06(), new Day07(), new Day08(), new Day09(), new Day10(),
+            new Day11(), new Day12(), new Day13(), new Day14(), new Day15(),
+            new Day16(), new Day17(), new Day18(), new Day19(), new Day20());
+
+    private Solvers() {
+    }
+
+    /**
+     * Returns the solver for the specified day.
+     *
+     * @param day the day, starting at 1
+     * @return the solver
+     * @throws IllegalArgumentException if there is no solver for the day
+     */
+    public static Solver<?> get(int day) {
+        if (day < 1 || day > SOLVERS.size()) {
+            throw new IllegalArgumentException("no solver for day " + day);
+        }
+        return SOLVERS.get(day - 1);
+    }
+
+    /**
+     * Returns the number of days with a solver.
+     *
+     * @return the number of days
+     */
+    public static int days() {
+        return SOLVERS.size();
+    }
+
+    /**
+     * Returns the default puzzle input file for the specified day.
+     *
+     * @param day the day, starting at 1
+     * @return the file, relative to the repository root
+     */
+    public static String defaultInput(int day) {
+        return String.format("resources/day%02d", day);
+    }
+}
@@ -0,0 +1,224 @@
+package advent2024;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Finds a dictionary of words in a {@link Grid} of letters, in straight lines in all eight directions, with an
+ * Aho-Corasick automaton.
+ *
+ * <p>The automaton is built once over every word and every word reversed, so a word read backwards along a line is
+ * found reading the line forwards.
+ * Each line of the grid, every row, column, diagonal, and anti-diagonal, is then streamed through the automaton
+ * once, one table lookup per cell however many words there are.
+ * The lines are streamed together, in one pass over the grid row by row, with the state of the automaton for each
+ * column and diagonal in an array, so the grid is read in order rather than a stride at a time down the columns.
+ *
+ * <p>An occurrence is a word and a direction from its first letter, as if searching from each cell in each of the
+ * eight directions: a palindrome is counted twice per line it is in, once each way.
+ */
+public final class WordSearch {
+
+    private final int words;
+    private final int longest;
+    // letters of the words are classes 1 to n, and any other byte is class 0
+    private final int[] classes = new int[256];
+    private final int width;
+    private final int[] next;
+    // the number of words, forwards and reversed, that end at each node, including through its suffixes
+    private final long[] outputs;
+    private final int[] failures;
+    private final int[] order;
+    private final int[] wordNodes;
+    private final int[] reversedNodes;
+
+    private WordSearch(String[] dictionary) {
+        words = dictionary.length;
+        var letters = 0;
+        var length = 0;
+        var longest = 0;
+        for (var word : dictionary) {
+            if (word.isEmpty()) {
+                throw new IllegalArgumentException("empty word");
+            }
+            for (var b : word.getBytes(StandardCharsets.US_ASCII)) {
+                if (b == Grid.BORDER) {
+                    throw new IllegalArgumentException("word contains the border: " + word);
+                }
+                if (classes[b & 0xff] == 0) {
+                    classes[b & 0xff] = ++letters;
+                }
+            }
+            length += word.length();
+            longest = Math.max(longest, word.length());
+        }
+        this.longest = longest;
+        width = letters + 1;
+
+        // a trie of the words and their reverses, with -1 for a missing child
+        var capacity = 2 * length + 1;
+        var trie = new int[capacity * width];
+        Arrays.fill(trie, -1);
+        var ends = new long[capacity];
+        var nodes = 1;
+        wordNodes = new int[words];
+        reversedNodes = new int[words];
+        for (var w = 0; w < words; w++) {
+            var bytes = dictionary[w].getBytes(StandardCharsets.US_ASCII);
+            for (var reversed = 0; reversed < 2; reversed++) {
+                var node = 0;
+                for (var i = 0; i < bytes.length; i++) {
+                    var c = classes[bytes[reversed == 0 ? i : bytes.length - 1 - i] & 0xff];
+                    if (trie[node * width + c] < 0) {
+                        trie[node * width + c] = nodes++;
+                    }
+                    node = trie[node * width + c];
+                }
+                ends[node]++;
+                if (reversed == 0) {
+                    wordNodes[w] = node;
+                } else {
+                    reversedNodes[w] = node;
+                }
+            }
+        }
+
+        // breadth first, set the failure links, complete the transitions, and add the outputs of the suffixes
+        next = Arrays.copyOf(trie, nodes * width);
+        outputs = Arrays.copyOf(ends, nodes);
+        failures = new int[nodes];
+        order = new int[nodes];
+        var head = 0;
+        var tail = 1;
+        while (head < tail) {
+            var node = order[head++];
+            for (var c = 0; c < width; c++) {
+                var child = next[node * width + c];
+                var fallback = node == 0 ? 0 : next[failures[node] * width + c];
+                if (child < 0 || c == 0) {
+                    // other bytes, and the border, restart the search
+                    next[node * width + c] = c == 0 ? 0 : fallback;
+                } else {
+                    failures[child] = fallback;
+                    outputs[child] += outputs[fallback];
+                    order[tail++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles a dictionary of words.
+     *
+     * @param dictionary the words
+     * @return the search
+     */
+    public static WordSearch of(String... dictionary) {
+        return new WordSearch(dictionary);
+    }
+
+    /**
+     * Returns the length of the longest word, so an occurrence spans at most {@code longest() - 1} rows below its top
+     * row.
+     *
+     * @return the length
+     */
+    public int longest() {
+        return longest;
+    }
+
+    /**
+     * Returns the number of occurrences of all words in a grid.
+     *
+     * @param grid the grid
+     * @return the number of occurrences
+     */
+    public long count(Grid grid) {
+        return count(grid, 0, grid.rows());
+    }
+
+    /**
+     * Returns the number of occurrences of all words in a grid that end in a band of rows, reading down the grid, so
+     * the counts of bands that cover the grid add up to the count of the grid.
+     * The rows before the band that an occurrence ending in it can start in are streamed first, without counting.
+     *
+     * @param grid the grid
+     * @param fromRow the first row of the band, inclusive
+     * @param toRow the last row of the band, exclusive
+     * @return the number of occurrences
+     */
+    public long count(Grid grid, int fromRow, int toRow) {
+        var cols = grid.cols();
+        var columns = new int[cols];
+        var diagonals = new int[grid.rows() + cols - 1];
+        var antiDiagonals = new int[grid.rows() + cols - 1];
+        stream(grid, Math.max(0, fromRow - longest + 1), fromRow, columns, diagonals, antiDiagonals);
+        return stream(grid, fromRow, toRow, columns, diagonals, antiDiagonals);
+    }
+
+    /**
+     * Streams rows through the automaton, from the state of each column and diagonal, and returns the number of
+     * occurrences that end in them.
+     */
+    private long stream(Grid grid, int fromRow, int toRow, int[] columns, int[] diagonals, int[] antiDiagonals) {
+        var rows = grid.rows();
+        var cols = grid.cols();
+        var count = 0L;
+        for (var row = fromRow; row < toRow; row++) {
+            var across = 0;
+            var cell = grid.index(row, 0);
+            for (var col = 0; col < cols; col++, cell++) {
+                var c = classes[grid.get(cell) & 0xff];
+                across = next[across * width + c];
+                var column = next[columns[col] * width + c];
+                var diagonal = next[diagonals[col - row + rows - 1] * width + c];
+                var antiDiagonal = next[antiDiagonals[col + row] * width + c];
+                columns[col] = column;
+                diagonals[col - row + rows - 1] = diagonal;
+                antiDiagonals[col + row] = antiDiagonal;
+                count += outputs[across] + outputs[column] + outputs[diagonal] + outputs[antiDiagonal];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of occurrences of each word in a grid.
+     *
+     * @param grid the grid
+     * @return the number of occurrences, by the index of the word in the dictionary
+     */
+    public long[] countEach(Grid grid) {
+        // count the visits to each node, then add the visits of each node to its suffixes, deepest first
+        var rows = grid.rows();
+        var cols = grid.cols();
+        var columns = new int[cols];
+        var diagonals = new int[rows + cols - 1];
+        var antiDiagonals = new int[rows + cols - 1];
+        var visits = new long[outputs.length];
+        for (var row = 0; row < rows; row++) {
+            var across = 0;
+            var cell = grid.index(row, 0);
+            for (var col = 0; col < cols; col++, cell++) {
+                var c = classes[grid.get(cell) & 0xff];
+                across = next[across * width + c];
+                columns[col] = next[columns[col] * width + c];
+                diagonals[col - row + rows - 1] = next[diagonals[col - row + rows - 1] * width + c];
+                antiDiagonals[col + row] = next[antiDiagonals[col + row] * width + c];
+                visits[across]++;
+                visits[columns[col]]++;
+                visits[diagonals[col - row + rows - 1]]++;
+                visits[antiDiagonals[col + row]]++;
+            }
+        }
+        for (var i = order.length - 1; i > 0; i--) {
+            visits[failures[order[i]]] += visits[order[i]];
+        }
+
+        var counts = new long[words];
+        for (var w = 0; w < words; w++) {
+            counts[w] = visits[wordNodes[w]] + visits[reversedNodes[w]];
+        }
+        return counts;
+    }
+}